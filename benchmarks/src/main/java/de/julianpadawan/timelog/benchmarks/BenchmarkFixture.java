@@ -0,0 +1,106 @@
+package de.julianpadawan.timelog.benchmarks;
+
+import de.julianpadawan.common.db.Database;
+import de.julianpadawan.timelog.io.HistoryGenerator;
+import de.julianpadawan.timelog.model.*;
+import de.julianpadawan.timelog.preferences.Preferences;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+@State(Scope.Benchmark)
+public class BenchmarkFixture {
+    private static final long SEED = 24816;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+
+    @Param({"FILE", "MEMORY"})
+    public Storage storage;
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private Path file;
+    private Connection keepAlive;
+    private LocalDateTime start, end;
+    private final List<Activity> activities = new ArrayList<>();
+    private final Map<String, Goal> goals = new HashMap<>();
+    private List<LogEntry> logEntries;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        Preferences.set("StartOfDay", LocalTime.of(5, 50));
+        Preferences.set("CursorFetchSize", 500);
+        Preferences.set("SleepID", -1);
+
+        final String url;
+        if (storage == Storage.FILE) {
+            file = Files.createTempFile("timelog-benchmark", ".sqlite");
+            url = "jdbc:sqlite:" + file;
+        } else {
+            url = "jdbc:sqlite:file:timelog-benchmark-" + System.nanoTime() + "?mode=memory&cache=shared";
+            keepAlive = DriverManager.getConnection(url);
+        }
+        Database.init(url, "", "");
+        StatementCache.init(url, "", "");
+        for (int version = 1; version <= 5; version++) Database.execFile("db/" + version + ".sql");
+        DayRollup.ensureStartOfDay(Preferences.getTime("StartOfDay")).join();
+
+        populate();
+        LogEntry.FACTORY.clearCache();
+        logEntries = new ArrayList<>(LogEntry.FACTORY.getAllFinishedBetween(start, end.plusSeconds(1)));
+    }
+
+    private void populate() {
+        final HistoryGenerator.Result result = new HistoryGenerator(SEED)
+                .goals("1d", "1w", "1m")
+                .personGoals("1d")
+                .generateEntries(FIRST_DAY, entries, (done, total) -> {
+                });
+        start = result.getFirst();
+        end = result.getLast();
+        activities.addAll(result.getActivities());
+        for (Goal goal : result.getGoals()) goals.put(goal.getPerson() == null ? goal.getInterval() : "person", goal);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        StatementCache.close();
+        Activity.FACTORY.clearCache();
+        LogEntry.FACTORY.clearCache();
+        if (keepAlive != null) keepAlive.close();
+        if (file != null) Files.deleteIfExists(file);
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public List<Activity> getActivities() {
+        return activities;
+    }
+
+    public Goal getGoal(String key) {
+        return goals.get(key);
+    }
+
+    public List<LogEntry> getLogEntries() {
+        return logEntries;
+    }
+
+    public enum Storage {
+        FILE, MEMORY
+    }
+}
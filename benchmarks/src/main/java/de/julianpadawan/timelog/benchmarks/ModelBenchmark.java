@@ -0,0 +1,75 @@
+package de.julianpadawan.timelog.benchmarks;
+
+import de.julianpadawan.common.db.Database;
+import de.julianpadawan.common.db.ResultView;
+import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.LogEntry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelBenchmark {
+    private static final int SAMPLES = 1000;
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void getDate(Samples samples, Blackhole blackhole) {
+        for (LocalDateTime time : samples.times) blackhole.consume(LogEntry.getDate(time));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void compareTo(Samples samples, Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) blackhole.consume(samples.first[i].compareTo(samples.second[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void instanceOf(Samples samples, Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) blackhole.consume(samples.first[i].instanceOf(samples.second[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int getFromResultView(Blackhole blackhole) {
+        return Database.execute(LogEntry.LogEntryFactory.TABLE_DEFINITION.getBaseSelectSQL() + " LIMIT " + SAMPLES, statement -> {
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final ResultView view = new ResultView(resultSet);
+                int rows = 0;
+                while (resultSet.next()) {
+                    blackhole.consume(LogEntry.LogEntryFactory.getFromResultView(view));
+                    rows++;
+                }
+                return rows;
+            }
+        }, 0);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Samples {
+        private final LocalDateTime[] times = new LocalDateTime[SAMPLES];
+        private final Activity[] first = new Activity[SAMPLES], second = new Activity[SAMPLES];
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkFixture fixture) {
+            final Random random = new Random(SAMPLES);
+            final List<LogEntry> entries = fixture.getLogEntries();
+            final List<Activity> activities = fixture.getActivities();
+            for (int i = 0; i < SAMPLES; i++) {
+                times[i] = entries.get(random.nextInt(entries.size())).getEnd();
+                first[i] = activities.get(random.nextInt(activities.size()));
+                second[i] = activities.get(random.nextInt(activities.size()));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.julianpadawan.timelog.benchmarks;
+
+import de.julianpadawan.timelog.insight.ActivityAccumulator;
+import de.julianpadawan.timelog.insight.ActivityStatistic;
+import de.julianpadawan.timelog.insight.QualityTimeStatistic;
+import de.julianpadawan.timelog.insight.Statistic;
+import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.preferences.Preferences;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticBenchmark {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Preferences.set("ParallelStatistics", parallel);
+    }
+
+    @Benchmark
+    public ActivityStatistic activityStatistic(BenchmarkFixture fixture) {
+        return ActivityStatistic.of(fixture.getLogEntries());
+    }
+
+    @Benchmark
+    public ActivityAccumulator activityAccumulator(BenchmarkFixture fixture) {
+        final ActivityAccumulator accumulator = new ActivityAccumulator();
+        for (LogEntry logEntry : fixture.getLogEntries()) accumulator.add(logEntry);
+        return accumulator;
+    }
+
+    @Benchmark
+    public QualityTimeStatistic qualityTimeStatistic(BenchmarkFixture fixture) {
+        return QualityTimeStatistic.of(fixture.getLogEntries());
+    }
+
+    @Benchmark
+    public Statistic<Activity, Duration> flattened(Statistics statistics) {
+        return statistics.activityStatistic.flattened();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Statistics {
+        private ActivityStatistic activityStatistic;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkFixture fixture) {
+            activityStatistic = ActivityStatistic.of(fixture.getLogEntries());
+        }
+    }
+}
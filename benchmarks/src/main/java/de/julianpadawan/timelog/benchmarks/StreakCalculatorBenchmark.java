@@ -0,0 +1,82 @@
+package de.julianpadawan.timelog.benchmarks;
+
+import de.julianpadawan.timelog.insight.StreakCalculator;
+import de.julianpadawan.timelog.model.Goal;
+import de.julianpadawan.timelog.model.LogBatchWriter;
+import de.julianpadawan.timelog.model.LogEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreakCalculatorBenchmark {
+
+    @Benchmark
+    public StreakCalculator init(Goals goals, BenchmarkFixture fixture) {
+        final StreakCalculator calculator = StreakCalculator.of(goals.goal);
+        calculator.init(fixture.getEnd());
+        return calculator;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3, batchSize = NewEntries.COUNT)
+    @Measurement(iterations = 5, batchSize = NewEntries.COUNT)
+    public StreakCalculator acceptNew(NewEntries newEntries) {
+        newEntries.calculator.acceptNew(newEntries.next());
+        return newEntries.calculator;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Goals {
+        @Param({"1d", "1w", "1m", "person"})
+        public String goalKey;
+
+        private Goal goal;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkFixture fixture) {
+            goal = fixture.getGoal(goalKey);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class NewEntries {
+        static final int COUNT = 10000;
+        private static final int MINUTES = 45;
+
+        private List<LogEntry> entries;
+        private StreakCalculator calculator;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Goals goals, BenchmarkFixture fixture) {
+            final Goal goal = goals.goal;
+            final Set<Integer> persons = goal.getPerson() == null ? Set.of() : Set.of(goal.getPerson().getId());
+            final LogBatchWriter writer = new LogBatchWriter();
+            LocalDateTime start = fixture.getEnd();
+            for (int i = 0; i < COUNT; i++, start = start.plusMinutes(MINUTES))
+                writer.add(goal.getActivity().getId(), "", start, start.plusMinutes(MINUTES), null, persons);
+            writer.flush();
+            entries = new ArrayList<>(LogEntry.FACTORY.getAllFinishedBetween(fixture.getEnd().plusSeconds(1), start.plusSeconds(1)));
+            entries.sort(Comparator.comparing(LogEntry::getEnd));
+        }
+
+        @Setup(Level.Iteration)
+        public void reset(Goals goals, BenchmarkFixture fixture) {
+            calculator = StreakCalculator.of(goals.goal);
+            calculator.init(fixture.getEnd());
+            next = 0;
+        }
+
+        private LogEntry next() {
+            return entries.get(next++ % entries.size());
+        }
+    }
+}
@@ -1,9 +1,39 @@
 package de.julianpadawan.timelog;
 
+import de.julianpadawan.timelog.io.LogExporter;
+import de.julianpadawan.timelog.model.LogEntry;
 import de.julianpadawan.timelog.view.App;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
 public class Launcher {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--export")) System.exit(export(args));
         App.main(args);
     }
+
+    private static int export(String[] args) {
+        if (args.length != 2 && args.length != 4) {
+            System.err.println("usage: --export <file.csv> [<first day> <last day>]");
+            return 2;
+        }
+        try {
+            App.initHeadless();
+            LocalDateTime from = null, to = null;
+            if (args.length == 4) {
+                from = LogEntry.atStartOfDay(LocalDate.parse(args[2]));
+                to = LogEntry.atStartOfDay(LocalDate.parse(args[3]).plusDays(1));
+            }
+            final int exported = LogExporter.export(Paths.get(args[1]), from, to);
+            System.out.println(exported + " entries exported to " + args[1]);
+            return 0;
+        } catch (IOException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+    }
 }
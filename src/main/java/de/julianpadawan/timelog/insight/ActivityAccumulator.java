@@ -0,0 +1,100 @@
+package de.julianpadawan.timelog.insight;
+
+import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.LogEntry;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+public final class ActivityAccumulator {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] millis = new long[INITIAL_CAPACITY], counts = new long[INITIAL_CAPACITY];
+    private long[] aggregateMillis, aggregateCounts;
+
+    public void add(LogEntry entry) {
+        if (entry.getEnd() == null) throw new IllegalArgumentException("unfinished entry");
+        add(entry.getActivity().getId(), entry.getStart().until(entry.getEnd(), ChronoUnit.MILLIS), 1);
+    }
+
+    public void add(int activity, long millis) {
+        add(activity, millis, 1);
+    }
+
+    public void add(int activity, long millis, long count) {
+        if (activity >= this.millis.length) grow(activity);
+        this.millis[activity] += millis;
+        counts[activity] += count;
+        aggregateMillis = null;
+    }
+
+    public ActivityAccumulator merge(ActivityAccumulator other) {
+        if (other.millis.length > millis.length) grow(other.millis.length - 1);
+        for (int id = 0; id < other.millis.length; id++) {
+            millis[id] += other.millis[id];
+            counts[id] += other.counts[id];
+        }
+        aggregateMillis = null;
+        return this;
+    }
+
+    private void grow(int activity) {
+        final int capacity = Math.max(activity + 1, millis.length * 2);
+        millis = Arrays.copyOf(millis, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+    }
+
+    private void rollUp() {
+        if (aggregateMillis != null) return;
+        aggregateMillis = new long[millis.length];
+        aggregateCounts = new long[millis.length];
+        for (int id = 0; id < millis.length; id++) {
+            if (counts[id] == 0) continue;
+            Activity activity = Activity.FACTORY.getForId(id);
+            while (true) {
+                final int ancestor = activity.getId();
+                if (ancestor >= aggregateMillis.length) growAggregates(ancestor);
+                aggregateMillis[ancestor] += millis[id];
+                aggregateCounts[ancestor] += counts[id];
+                if (ancestor == 0) break;
+                activity = activity.getParent();
+            }
+        }
+    }
+
+    private void growAggregates(int activity) {
+        aggregateMillis = Arrays.copyOf(aggregateMillis, activity + 1);
+        aggregateCounts = Arrays.copyOf(aggregateCounts, activity + 1);
+    }
+
+    public long getMillis(Activity activity) {
+        return activity.getId() < millis.length ? millis[activity.getId()] : 0;
+    }
+
+    public long getCount(Activity activity) {
+        return activity.getId() < counts.length ? counts[activity.getId()] : 0;
+    }
+
+    public long getAggregateMillis(Activity activity) {
+        rollUp();
+        return activity.getId() < aggregateMillis.length ? aggregateMillis[activity.getId()] : 0;
+    }
+
+    public long getAggregateCount(Activity activity) {
+        rollUp();
+        return activity.getId() < aggregateCounts.length ? aggregateCounts[activity.getId()] : 0;
+    }
+
+    public ActivityStatistic toStatistic() {
+        rollUp();
+        final ActivityStatistic statistic = ActivityStatistic.empty();
+        for (int id = 0; id < aggregateCounts.length; id++) {
+            if (aggregateCounts[id] == 0) continue;
+            statistic.set(Activity.FACTORY.getForId(id),
+                    new DurationDatum(Duration.ofMillis(id < millis.length ? millis[id] : 0)),
+                    new DurationDatum(Duration.ofMillis(aggregateMillis[id])));
+        }
+        return statistic;
+    }
+}
@@ -1,20 +1,64 @@
 package de.julianpadawan.timelog.insight;
 
 
+import de.julianpadawan.timelog.jfr.StatisticEvent;
 import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.DayRollup;
 import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.LogEntryColumns;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public final class ActivityStatistic extends Statistic<Activity, Duration> {
+    private static final String NAME = "Activity";
+
     private ActivityStatistic(Activity root) {
         super(root, root.getId() == 0 ? "Activity" : root.getName(), DurationDatum::new);
     }
 
+    static ActivityStatistic empty() {
+        return new ActivityStatistic(Activity.getRoot());
+    }
+
     public static ActivityStatistic of(Collection<LogEntry> entries) {
-        final ActivityStatistic statistic = new ActivityStatistic(Activity.getRoot());
-        entries.forEach(logEntry -> statistic.add(logEntry.getActivity(), DurationDatum.of(logEntry)));
+        final StatisticEvent event = new StatisticEvent(NAME, "entries");
+        final List<LogEntry> list = entries instanceof List ? (List<LogEntry>) entries : new ArrayList<>(entries);
+        final ActivityStatistic statistic = ParallelAggregation.aggregate(0, list.size(), ActivityAccumulator::new,
+                (accumulator, i) -> accumulator.add(list.get(i)), ActivityAccumulator::merge).toStatistic();
+        event.finish(null, null, entries.size());
+        return statistic;
+    }
+
+    public static ActivityStatistic between(LocalDateTime from, LocalDateTime to) {
+        final StatisticEvent event = new StatisticEvent(NAME, "stream");
+        final ActivityAccumulator accumulator = new ActivityAccumulator();
+        LogEntry.FACTORY.forEachFinishedBetween(from, to, accumulator::add);
+        final ActivityStatistic statistic = accumulator.toStatistic();
+        event.finish(from, to, (int) accumulator.getAggregateCount(Activity.getRoot()));
+        return statistic;
+    }
+
+    public static ActivityStatistic of(LogEntryColumns columns, LocalDateTime from, LocalDateTime to) {
+        final StatisticEvent event = new StatisticEvent(NAME, "columns");
+        final int first = columns.indexOf(from), last = columns.indexOf(to);
+        final ActivityStatistic statistic = ParallelAggregation.aggregate(first, last, ActivityAccumulator::new,
+                (accumulator, i) -> accumulator.add(columns.getActivityId(i), columns.getMillis(i)),
+                ActivityAccumulator::merge).toStatistic();
+        event.finish(from, to, Math.max(0, last - first));
+        return statistic;
+    }
+
+    public static ActivityStatistic of(Map<Integer, DayRollup> totals) {
+        final StatisticEvent event = new StatisticEvent(NAME, "rollup");
+        final ActivityAccumulator accumulator = new ActivityAccumulator();
+        totals.forEach((activity, total) -> accumulator.add(activity, total.getMillis(), total.getEntries()));
+        final ActivityStatistic statistic = accumulator.toStatistic();
+        event.finish(null, null, totals.size());
         return statistic;
     }
 
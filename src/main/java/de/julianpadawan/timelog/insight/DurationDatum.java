@@ -5,7 +5,12 @@ import de.julianpadawan.timelog.model.LogEntry;
 import de.julianpadawan.timelog.view.App;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 
+/**
+ * A summed duration. Every statistic source counts each entry in whole milliseconds, the precision log times are
+ * stored with, so entry lists, the column snapshot and the day rollup produce the same totals.
+ */
 public final class DurationDatum implements StatisticalDatum<Duration> {
     private final Duration duration;
 
@@ -19,7 +24,7 @@ public final class DurationDatum implements StatisticalDatum<Duration> {
 
     public static DurationDatum of(LogEntry entry) {
         if (entry.getEnd() == null) throw new IllegalArgumentException("unfinished entry");
-        return new DurationDatum(Duration.between(entry.getStart(), entry.getEnd()));
+        return new DurationDatum(Duration.between(entry.getStart(), entry.getEnd()).truncatedTo(ChronoUnit.MILLIS));
     }
 
     @Override
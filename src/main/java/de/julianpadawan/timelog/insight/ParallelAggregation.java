@@ -0,0 +1,49 @@
+package de.julianpadawan.timelog.insight;
+
+import de.julianpadawan.timelog.preferences.Preferences;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+final class ParallelAggregation<A> extends RecursiveTask<A> {
+    static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private final int from, to;
+    private final Supplier<A> zero;
+    private final ObjIntConsumer<A> add;
+    private final BinaryOperator<A> merge;
+
+    private ParallelAggregation(int from, int to, Supplier<A> zero, ObjIntConsumer<A> add, BinaryOperator<A> merge) {
+        this.from = from;
+        this.to = to;
+        this.zero = zero;
+        this.add = add;
+        this.merge = merge;
+    }
+
+    static <A> A aggregate(int from, int to, Supplier<A> zero, ObjIntConsumer<A> add, BinaryOperator<A> merge) {
+        final ParallelAggregation<A> task = new ParallelAggregation<>(from, to, zero, add, merge);
+        if (Preferences.getBoolean("ParallelStatistics") && to - from > SEQUENTIAL_THRESHOLD)
+            return ForkJoinPool.commonPool().invoke(task);
+        return task.sequential();
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) return sequential();
+        final int middle = (from + to) >>> 1;
+        final ParallelAggregation<A> left = new ParallelAggregation<>(from, middle, zero, add, merge);
+        left.fork();
+        final A right = new ParallelAggregation<>(middle, to, zero, add, merge).compute();
+        return merge.apply(left.join(), right);
+    }
+
+    private A sequential() {
+        final A partial = zero.get();
+        for (int i = from; i < to; i++) add.accept(partial, i);
+        return partial;
+    }
+}
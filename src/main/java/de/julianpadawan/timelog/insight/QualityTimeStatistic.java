@@ -1,24 +1,75 @@
 package de.julianpadawan.timelog.insight;
 
-
+import de.julianpadawan.timelog.jfr.StatisticEvent;
 import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.LogEntryColumns;
 import de.julianpadawan.timelog.model.Person;
 import de.julianpadawan.timelog.model.QualityTime;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 public final class QualityTimeStatistic extends Statistic<Person, Duration> {
+    private static final String NAME = "QualityTime";
+
     private QualityTimeStatistic(Person person) {
         super(person, person == null ? "People" : person.getName(), DurationDatum::new);
     }
 
+    private static QualityTimeStatistic empty() {
+        return new QualityTimeStatistic(null);
+    }
+
+    private static QualityTimeStatistic merged(QualityTimeStatistic left, QualityTimeStatistic right) {
+        left.merge(right);
+        return left;
+    }
+
     public static QualityTimeStatistic of(Collection<LogEntry> entries) {
-        final QualityTimeStatistic statistic = new QualityTimeStatistic(null);
-        entries.forEach(logEntry ->
-                QualityTime.FACTORY.getAll(logEntry).forEach(qualityTime ->
-                        statistic.add(qualityTime.getSecond(), DurationDatum.of(logEntry)))
-        );
+        final StatisticEvent event = new StatisticEvent(NAME, "entries");
+        final Map<LogEntry, List<Person>> persons = QualityTime.FACTORY.getAllPersons(entries);
+        final List<LogEntry> list = entries instanceof List ? (List<LogEntry>) entries : new ArrayList<>(entries);
+        final QualityTimeStatistic statistic = ParallelAggregation.aggregate(0, list.size(), QualityTimeStatistic::empty,
+                (partial, i) -> {
+                    final LogEntry logEntry = list.get(i);
+                    persons.getOrDefault(logEntry, Collections.emptyList()).forEach(person ->
+                            partial.add(person, DurationDatum.of(logEntry)));
+                }, QualityTimeStatistic::merged);
+        event.finish(null, null, entries.size());
+        return statistic;
+    }
+
+    public static QualityTimeStatistic between(LocalDateTime from, LocalDateTime to) {
+        final StatisticEvent event = new StatisticEvent(NAME, "stream");
+        final QualityTimeStatistic statistic = empty();
+        final Map<Integer, List<Person>> persons = QualityTime.FACTORY.getAllPersonsFinishedBetween(from, to);
+        final int[] rows = {0};
+        if (!persons.isEmpty()) LogEntry.FACTORY.forEachFinishedBetween(from, to, logEntry -> {
+            rows[0]++;
+            persons.getOrDefault(logEntry.getId(), Collections.emptyList()).forEach(person ->
+                    statistic.add(person, DurationDatum.of(logEntry)));
+        });
+        event.finish(from, to, rows[0]);
+        return statistic;
+    }
+
+    public static QualityTimeStatistic of(LogEntryColumns columns, LocalDateTime from, LocalDateTime to) {
+        final StatisticEvent event = new StatisticEvent(NAME, "columns");
+        final Map<Integer, List<Person>> persons = QualityTime.FACTORY.getAllPersonsFinishedBetween(from, to);
+        final int first = columns.indexOf(from), last = columns.indexOf(to);
+        final QualityTimeStatistic statistic = ParallelAggregation.aggregate(first, last,
+                QualityTimeStatistic::empty, (partial, i) -> {
+                    final List<Person> entryPersons = persons.get(columns.getId(i));
+                    if (entryPersons == null) return;
+                    final DurationDatum duration = new DurationDatum(Duration.ofMillis(columns.getMillis(i)));
+                    entryPersons.forEach(person -> partial.add(person, duration));
+                }, QualityTimeStatistic::merged);
+        event.finish(from, to, Math.max(0, last - first));
         return statistic;
     }
 
@@ -3,6 +3,7 @@ package de.julianpadawan.timelog.insight;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 public abstract class Statistic<T, D> implements Comparable<Statistic<T, D>> {
@@ -24,6 +25,22 @@ public abstract class Statistic<T, D> implements Comparable<Statistic<T, D>> {
         else data.accept(value);
     }
 
+    void set(T key, StatisticalDatum<D> value, StatisticalDatum<D> aggregate) {
+        final Statistic<T, D> statistic = this.key != null && this.key.equals(key) ? this : getSubStatistic(key);
+        statistic.data.set(value);
+        statistic.aggregateData.set(aggregate);
+    }
+
+    public void merge(Statistic<T, D> other) {
+        if (!Objects.equals(key, other.key)) throw new IllegalArgumentException("statistics have different keys");
+        data.merge(other.data);
+        aggregateData.merge(other.aggregateData);
+        other.children.forEach((childKey, child) -> {
+            if (!children.containsKey(childKey)) createSubStatistic(childKey);
+            children.get(childKey).merge(child);
+        });
+    }
+
     protected Statistic<T, D> getSubStatistic(T key) {
         if (this.key != null && this.key.equals(key)) throw new IllegalArgumentException();
         if (!children.containsKey(key)) createSubStatistic(key);
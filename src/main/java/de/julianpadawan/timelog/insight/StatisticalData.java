@@ -1,11 +1,11 @@
 package de.julianpadawan.timelog.insight;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.function.Consumer;
 
 public final class StatisticalData<D> implements Consumer<StatisticalDatum<D>> {
-    private final Collection<Consumer<StatisticalDatum<D>>> addListeners = new HashSet<>();
+    private final Collection<Consumer<StatisticalDatum<D>>> addListeners = new ArrayList<>(1);
     private StatisticalDatum<D> value;
 
     public StatisticalData(StatisticalDatum<D> startValue) {
@@ -22,6 +22,14 @@ public final class StatisticalData<D> implements Consumer<StatisticalDatum<D>> {
         addListeners.add(listener);
     }
 
+    void merge(StatisticalData<D> other) {
+        value = value.plus(other.value);
+    }
+
+    void set(StatisticalDatum<D> datum) {
+        value = datum;
+    }
+
     public StatisticalDatum<D> get() {
         return value;
     }
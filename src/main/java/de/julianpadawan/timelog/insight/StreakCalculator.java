@@ -1,8 +1,9 @@
 package de.julianpadawan.timelog.insight;
 
-import de.julianpadawan.common.db.Database;
 import de.julianpadawan.common.db.ResultView;
+import de.julianpadawan.timelog.jfr.StreakEvent;
 import de.julianpadawan.timelog.model.*;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -11,10 +12,20 @@ import javafx.beans.property.StringProperty;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public abstract class StreakCalculator {
+    private static final String RELEVANT_ENTRIES_SQL = "WITH RECURSIVE subtree(id) AS (SELECT ?"
+            + " UNION SELECT activity.id FROM activity JOIN subtree ON activity.parent = subtree.id"
+            + " WHERE activity.id != 0) "
+            + LogEntry.LogEntryFactory.TABLE_DEFINITION.getBaseSelectSQL()
+            + " WHERE end < ? AND NOT end IS NULL AND activity IN (SELECT id FROM subtree)";
+
     private final Activity activity;
     private final Person person;
+    private int goalId;
 
     private final StringProperty label = new SimpleStringProperty(this, "label");
     private final StringProperty streak = new SimpleStringProperty(this, "streak");
@@ -29,6 +40,12 @@ public abstract class StreakCalculator {
     }
 
     public static StreakCalculator of(Goal goal) {
+        final StreakCalculator calculator = create(goal);
+        calculator.goalId = goal.getId();
+        return calculator;
+    }
+
+    private static StreakCalculator create(Goal goal) {
         if (goal.getInterval().matches(DayStreakCalculator.PATTERN))
             return new DayStreakCalculator(goal);
         if (goal.getInterval().matches(WeekStreakCalculator.PATTERN))
@@ -51,20 +68,88 @@ public abstract class StreakCalculator {
     }
 
     public final void init(LocalDateTime referenceTime) {
+        scan(referenceTime);
+        postInit();
+    }
+
+    public final CompletableFuture<Void> initAsync(LocalDateTime referenceTime) {
+        return DatabaseExecutor.run(() -> scan(referenceTime)).thenRunAsync(this::postInit, Platform::runLater);
+    }
+
+    private void scan(LocalDateTime referenceTime) {
+        final StreakEvent event = new StreakEvent(referenceTime);
         preInit(referenceTime);
-        Database.execute(LogEntry.LogEntryFactory.TABLE_DEFINITION.getBaseSelectSQL() + " WHERE end < ? AND NOT end IS NULL ORDER BY end DESC", statement -> {
-            statement.setTimestamp(1, Timestamp.valueOf(referenceTime));
+        String sql = RELEVANT_ENTRIES_SQL;
+        if (person != null) sql += " AND id IN (SELECT logEntry FROM qualityTime WHERE person = ?)";
+        event.finish(() -> String.valueOf(goalId), StatementCache.query(sql + " ORDER BY end DESC", statement -> {
+            statement.setInt(1, activity.getId());
+            statement.setTimestamp(2, Timestamp.valueOf(referenceTime));
+            if (person != null) statement.setInt(3, person.getId());
+            int rows = 0;
             try (final ResultSet resultSet = statement.executeQuery()) {
                 final ResultView view = new ResultView(resultSet);
                 while (resultSet.next()) {
-                    LogEntry entry = LogEntry.LogEntryFactory.getFromResultView(view);
-                    if (isRelevant(entry))
-                        if (!accept(entry)) break;
+                    rows++;
+                    if (!accept(LogEntry.LogEntryFactory.getFromResultView(view))) break;
                 }
             }
-            return null;
-        }, null);
-        postInit();
+            return rows;
+        }, 0));
+    }
+
+    public static void initAll(Collection<StreakCalculator> calculators, LocalDateTime referenceTime) {
+        scanAll(calculators, referenceTime);
+        calculators.forEach(StreakCalculator::postInit);
+    }
+
+    public static CompletableFuture<Void> initAllAsync(Collection<StreakCalculator> calculators, LocalDateTime referenceTime) {
+        return DatabaseExecutor.run(() -> scanAll(calculators, referenceTime))
+                .thenRunAsync(() -> calculators.forEach(StreakCalculator::postInit), Platform::runLater);
+    }
+
+    private static void scanAll(Collection<StreakCalculator> calculators, LocalDateTime referenceTime) {
+        final StreakEvent event = new StreakEvent(referenceTime);
+        final List<StreakCalculator> active = new ArrayList<>(calculators);
+        final Set<Integer> activities = new HashSet<>();
+        final Map<Person, Set<Integer>> personEntries = new HashMap<>();
+        for (StreakCalculator calculator : active) {
+            calculator.preInit(referenceTime);
+            activities.add(calculator.activity.getId());
+            if (calculator.person != null)
+                personEntries.computeIfAbsent(calculator.person, QualityTime.FACTORY::getAllLogEntryIds);
+        }
+
+        if (!active.isEmpty()) event.finish(() -> calculators.stream().map(calculator -> String.valueOf(calculator.goalId))
+                .collect(Collectors.joining(",")), StatementCache.query("WITH RECURSIVE subtree(id) AS (SELECT id FROM activity WHERE id IN ("
+                + String.join(", ", Collections.nCopies(activities.size(), "?")) + ")"
+                + " UNION SELECT activity.id FROM activity JOIN subtree ON activity.parent = subtree.id"
+                + " WHERE activity.id != 0) "
+                + LogEntry.LogEntryFactory.TABLE_DEFINITION.getBaseSelectSQL()
+                + " WHERE end < ? AND NOT end IS NULL AND activity IN (SELECT id FROM subtree) ORDER BY end DESC", statement -> {
+            int param = 1;
+            for (Integer activity : activities) statement.setInt(param++, activity);
+            statement.setTimestamp(param, Timestamp.valueOf(referenceTime));
+            int rows = 0;
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final ResultView view = new ResultView(resultSet);
+                while (!active.isEmpty() && resultSet.next()) {
+                    rows++;
+                    final LogEntry entry = LogEntry.LogEntryFactory.getFromResultView(view);
+                    active.removeIf(calculator -> calculator.isRelevant(entry, personEntries) && !calculator.accept(entry));
+                }
+            }
+            return rows;
+        }, 0));
+    }
+
+    public final void restore(StartupSnapshot.StreakState state) {
+        setStreak(state.getStreak());
+        setProgress(state.getProgress());
+        setComplete(state.isComplete());
+    }
+
+    public final StartupSnapshot.StreakState toStreakState() {
+        return new StartupSnapshot.StreakState(getStreak(), getProgress(), isComplete());
     }
 
     protected abstract void preInit(LocalDateTime referenceTime);
@@ -73,6 +158,11 @@ public abstract class StreakCalculator {
 
     protected abstract void postInit();
 
+    private boolean isRelevant(LogEntry entry, Map<Person, Set<Integer>> personEntries) {
+        return entry.getActivity().instanceOf(activity) &&
+                (person == null || personEntries.get(person).contains(entry.getId()));
+    }
+
     private boolean isRelevant(LogEntry newEntry) {
         return newEntry.getActivity().instanceOf(activity) &&
                 (person == null || QualityTime.FACTORY.exists(newEntry, person));
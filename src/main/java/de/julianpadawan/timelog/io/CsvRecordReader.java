@@ -0,0 +1,78 @@
+package de.julianpadawan.timelog.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class CsvRecordReader extends RecordReader {
+    static final char SEPARATOR = ',';
+    static final String LIST_SEPARATOR = ";";
+
+    private final List<String> header;
+
+    CsvRecordReader(BufferedReader reader) throws IOException {
+        super(reader);
+        final List<String> fields = readFields();
+        if (fields == null) throw new IOException("missing header line");
+        header = new ArrayList<>(fields.size());
+        for (String field : fields) header.add(field.trim().toLowerCase());
+    }
+
+    @Override
+    protected Map<String, Object> readRecord() throws IOException {
+        List<String> fields;
+        do {
+            fields = readFields();
+            if (fields == null) return null;
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        if (fields.size() > header.size())
+            throw new FormatException("line " + getLine() + " has " + fields.size() + " fields, header has " + header.size());
+
+        final Map<String, Object> record = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            final String name = header.get(i);
+            final String value = fields.get(i);
+            if (name.equals("people")) {
+                record.put(name, value.isBlank() ? List.of() : Arrays.asList(value.split(LIST_SEPARATOR)));
+            } else record.put(name, value);
+        }
+        return record;
+    }
+
+    private List<String> readFields() throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+        line++;
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') field.append('"');
+                    else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) quoted = true;
+            else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') break;
+            else if (c != '\r') field.append((char) c);
+            c = reader.read();
+        }
+        if (quoted) throw new FormatException("unterminated quote starting in line " + getLine());
+        fields.add(field.toString());
+        return fields;
+    }
+}
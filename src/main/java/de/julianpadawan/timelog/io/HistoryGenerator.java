@@ -0,0 +1,237 @@
+package de.julianpadawan.timelog.io;
+
+import de.julianpadawan.common.db.Database;
+import de.julianpadawan.timelog.insight.StreakCalculator;
+import de.julianpadawan.timelog.model.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+public final class HistoryGenerator {
+    public static final long DEFAULT_SEED = 24816;
+
+    private static final String INSERT_ACTIVITY_SQL = "INSERT INTO activity (id, parent, name, color, pointsPerMinute)"
+            + " VALUES (?, 0, ?, ?, ?)";
+    private static final String SLEEP_NAME = "Sleep", SLEEP_COLOR = "#B3C7E6FF";
+    private static final List<String> COLORS = List.of("#F4B6B6FF", "#F7D9A8FF", "#F2EFA5FF", "#C5E8B7FF",
+            "#B6E3E0FF", "#C9C3F0FF", "#EDC3E6FF", "#D9D9D9FF");
+    private static final List<String> TRANSPORT_NAMES = List.of("Walk", "Bike", "Bus", "Train", "Car");
+    private static final LocalTime WAKE_UP = LocalTime.of(7, 0), BED_TIME = LocalTime.of(23, 0);
+    private static final int MIN_MINUTES = 10, MAX_MINUTES = 120;
+
+    private final long seed;
+    private int depth = 3, breadth = 4, people = 8, transports = 3, sleepId = -1;
+    private double zipfExponent = 1.1;
+    private List<String> goals = List.of("1d", "1w", "1m"), personGoals = List.of();
+
+    public HistoryGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public HistoryGenerator activityTree(int depth, int breadth) {
+        if (depth < 1 || breadth < 1) throw new IllegalArgumentException("activity tree must not be empty");
+        this.depth = depth;
+        this.breadth = breadth;
+        return this;
+    }
+
+    public HistoryGenerator sleepActivity(int id) {
+        if (id <= 0) throw new IllegalArgumentException("sleep activity id must be positive");
+        sleepId = id;
+        return this;
+    }
+
+    public HistoryGenerator people(int count) {
+        if (count < 0) throw new IllegalArgumentException("count must not be negative");
+        people = count;
+        return this;
+    }
+
+    public HistoryGenerator transports(int count) {
+        if (count < 0) throw new IllegalArgumentException("count must not be negative");
+        transports = count;
+        return this;
+    }
+
+    public HistoryGenerator zipfExponent(double exponent) {
+        if (exponent <= 0) throw new IllegalArgumentException("exponent must be positive");
+        zipfExponent = exponent;
+        return this;
+    }
+
+    public HistoryGenerator goals(String... intervals) {
+        goals = validIntervals(intervals);
+        return this;
+    }
+
+    public HistoryGenerator personGoals(String... intervals) {
+        personGoals = validIntervals(intervals);
+        return this;
+    }
+
+    private static List<String> validIntervals(String... intervals) {
+        for (String interval : intervals)
+            if (!StreakCalculator.validInterval(interval))
+                throw new IllegalArgumentException("unknown interval " + interval);
+        return List.of(intervals);
+    }
+
+    public Result generateDays(LocalDate firstDay, int days, LogImporter.Progress progress) {
+        return generate(firstDay, days, Integer.MAX_VALUE, progress);
+    }
+
+    public Result generateEntries(LocalDate firstDay, int entries, LogImporter.Progress progress) {
+        return generate(firstDay, Integer.MAX_VALUE, entries, progress);
+    }
+
+    private Result generate(LocalDate firstDay, int days, int entries, LogImporter.Progress progress) {
+        final Random random = new Random(seed);
+        final Result result = new Result();
+        result.sleep = getSleepActivity();
+        createActivities(random, Activity.getRoot(), null, 1, result.activities);
+        Collections.shuffle(result.activities, random);
+        for (int i = 0; i < people; i++)
+            result.persons.add(Person.FACTORY.createNew("Person " + (i + 1), 0.5 + random.nextInt(4) * 0.5));
+        final List<MeansOfTransport> meansOfTransport = new ArrayList<>();
+        for (int i = 0; i < transports; i++)
+            meansOfTransport.add(MeansOfTransport.FACTORY.createNew(
+                    i < TRANSPORT_NAMES.size() ? TRANSPORT_NAMES.get(i) : "Transport " + (i + 1)));
+        createGoals(result);
+
+        final double[] activityWeights = zipf(result.activities.size());
+        final double[] personWeights = zipf(result.persons.size());
+        final LogBatchWriter writer = new LogBatchWriter();
+        LocalDateTime time = jitter(random, firstDay.atTime(WAKE_UP), 45);
+        result.first = time;
+        days:
+        for (int day = 0; day < days && result.entries < entries && !Thread.currentThread().isInterrupted(); day++) {
+            final LocalDate date = firstDay.plusDays(day);
+            final LocalDateTime bedTime = jitter(random, date.atTime(BED_TIME), 60);
+            while (time.isBefore(bedTime) && result.entries < entries) {
+                LocalDateTime end = time.plusMinutes(MIN_MINUTES + random.nextInt(MAX_MINUTES - MIN_MINUTES + 1));
+                if (end.isAfter(bedTime)) end = bedTime;
+                final Activity activity = result.activities.get(sample(random, activityWeights));
+                final Integer transport = meansOfTransport.isEmpty() || random.nextInt(20) != 0 ? null
+                        : meansOfTransport.get(random.nextInt(meansOfTransport.size())).getId();
+                final Set<Integer> entryPersons = new LinkedHashSet<>();
+                if (!result.persons.isEmpty() && random.nextInt(5) == 0)
+                    for (int i = random.nextInt(2); i >= 0; i--)
+                        entryPersons.add(result.persons.get(sample(random, personWeights)).getId());
+                if (!add(writer, result, activity.getId(), time, end, transport, entryPersons)) break days;
+                time = end;
+            }
+            if (result.entries >= entries) break;
+            final LocalDateTime wakeUp = jitter(random, date.plusDays(1).atTime(WAKE_UP), 45);
+            if (!add(writer, result, result.sleep.getId(), time, wakeUp, null, Set.of())) break;
+            time = wakeUp;
+            if (days == Integer.MAX_VALUE) progress.update(result.entries, entries);
+            else progress.update(day + 1, days);
+        }
+        writer.flush();
+        result.written = writer.getWritten();
+        return result;
+    }
+
+    private static boolean add(LogBatchWriter writer, Result result, int activity, LocalDateTime start,
+                               LocalDateTime end, Integer transport, Collection<Integer> persons) {
+        result.entries++;
+        result.last = end;
+        return writer.add(activity, "", start, end, transport, persons);
+    }
+
+    private Activity getSleepActivity() {
+        if (sleepId <= 0) return Activity.FACTORY.createNew(Activity.getRoot(), SLEEP_NAME, SLEEP_COLOR, 0d);
+        final Activity existing = Activity.FACTORY.getForId(sleepId);
+        if (existing != null) return existing;
+        Database.execute(INSERT_ACTIVITY_SQL, statement -> {
+            statement.setInt(1, sleepId);
+            statement.setString(2, SLEEP_NAME);
+            statement.setString(3, SLEEP_COLOR);
+            statement.setDouble(4, 0d);
+            return statement.executeUpdate();
+        }, 0);
+        return Activity.FACTORY.getForId(sleepId);
+    }
+
+    private void createActivities(Random random, Activity parent, String prefix, int level, List<Activity> created) {
+        for (int i = 1; i <= breadth; i++) {
+            final String number = prefix == null ? String.valueOf(i) : prefix + "." + i;
+            final String color = level == 1 ? COLORS.get((i - 1) % COLORS.size()) : parent.getColor();
+            final Activity activity = Activity.FACTORY.createNew(parent, "Activity " + number, color,
+                    random.nextInt(5) * 0.5 - 0.5);
+            created.add(activity);
+            if (level < depth) createActivities(random, activity, number, level + 1, created);
+        }
+    }
+
+    private void createGoals(Result result) {
+        for (int i = 0; i < goals.size(); i++)
+            result.goals.add(Goal.FACTORY.createNew(result.activities.get(i % result.activities.size()),
+                    goals.get(i), Duration.ofMinutes(30), null));
+        if (result.persons.isEmpty()) return;
+        for (int i = 0; i < personGoals.size(); i++)
+            result.goals.add(Goal.FACTORY.createNew(Activity.getRoot(), personGoals.get(i), Duration.ZERO,
+                    result.persons.get(i % result.persons.size())));
+    }
+
+    private double[] zipf(int size) {
+        final double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) cumulative[rank] = sum += 1 / Math.pow(rank + 1, zipfExponent);
+        for (int rank = 0; rank < size; rank++) cumulative[rank] /= sum;
+        return cumulative;
+    }
+
+    private static int sample(Random random, double[] cumulative) {
+        final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+
+    private static LocalDateTime jitter(Random random, LocalDateTime time, int minutes) {
+        return time.plusMinutes(random.nextInt(2 * minutes + 1) - minutes);
+    }
+
+    public static final class Result {
+        private final List<Activity> activities = new ArrayList<>();
+        private final List<Person> persons = new ArrayList<>();
+        private final List<Goal> goals = new ArrayList<>();
+        private Activity sleep;
+        private LocalDateTime first, last;
+        private int entries, written;
+
+        public List<Activity> getActivities() {
+            return Collections.unmodifiableList(activities);
+        }
+
+        public List<Person> getPersons() {
+            return Collections.unmodifiableList(persons);
+        }
+
+        public List<Goal> getGoals() {
+            return Collections.unmodifiableList(goals);
+        }
+
+        public Activity getSleepActivity() {
+            return sleep;
+        }
+
+        public LocalDateTime getFirst() {
+            return first;
+        }
+
+        public LocalDateTime getLast() {
+            return last;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public int getWritten() {
+            return written;
+        }
+    }
+}
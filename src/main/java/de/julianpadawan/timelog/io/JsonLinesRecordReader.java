@@ -0,0 +1,133 @@
+package de.julianpadawan.timelog.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class JsonLinesRecordReader extends RecordReader {
+    private String text;
+    private int position;
+
+    JsonLinesRecordReader(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    protected Map<String, Object> readRecord() throws IOException {
+        do {
+            text = reader.readLine();
+            if (text == null) return null;
+            line++;
+        } while (text.isBlank());
+        position = 0;
+
+        final Map<String, Object> record = new HashMap<>();
+        expect('{');
+        if (!consume('}')) {
+            do {
+                final String name = readString().toLowerCase();
+                expect(':');
+                record.put(name, readValue());
+            } while (consume(','));
+            expect('}');
+        }
+        skipWhitespace();
+        if (position != text.length()) throw error("trailing characters");
+        return record;
+    }
+
+    private Object readValue() throws IOException {
+        skipWhitespace();
+        if (position >= text.length()) throw error("value expected");
+        final char c = text.charAt(position);
+        if (c == '"') return readString();
+        if (c == '[') {
+            position++;
+            final List<String> values = new ArrayList<>();
+            if (!consume(']')) {
+                do {
+                    final Object value = readValue();
+                    if (!(value instanceof String)) throw error("arrays may only contain plain values");
+                    values.add((String) value);
+                } while (consume(','));
+                expect(']');
+            }
+            return values;
+        }
+        if (c == '{') throw error("nested objects are not supported");
+        final int start = position;
+        while (position < text.length() && ",]} \t".indexOf(text.charAt(position)) == -1) position++;
+        final String literal = text.substring(start, position);
+        if (literal.equals("null")) return null;
+        if (literal.isEmpty()) throw error("value expected");
+        return literal;
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        final StringBuilder value = new StringBuilder();
+        while (position < text.length()) {
+            final char c = text.charAt(position++);
+            if (c == '"') return value.toString();
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position >= text.length()) break;
+            final char escaped = text.charAt(position++);
+            switch (escaped) {
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) throw error("invalid unicode escape");
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private boolean consume(char c) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) throws IOException {
+        if (!consume(c)) throw error("'" + c + "' expected");
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) position++;
+    }
+
+    private FormatException error(String message) {
+        return new FormatException("line " + getLine() + ", column " + (position + 1) + ": " + message);
+    }
+}
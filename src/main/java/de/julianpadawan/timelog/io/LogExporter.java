@@ -0,0 +1,101 @@
+package de.julianpadawan.timelog.io;
+
+import de.julianpadawan.common.db.Database;
+import de.julianpadawan.common.db.ResultView;
+import de.julianpadawan.timelog.preferences.Preferences;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+public final class LogExporter {
+    public static final List<String> COLUMNS = List.of("start", "end", "duration", "activity", "what", "transport", "people");
+
+    private static final String SELECT_SQL = "WITH RECURSIVE path(id, path, depth) AS ("
+            + "SELECT id, name, 1 FROM activity WHERE parent = 0 AND id != 0"
+            + " UNION ALL SELECT activity.id, path.path || '" + LogImporter.PATH_SEPARATOR + "' || activity.name, path.depth + 1"
+            + " FROM activity JOIN path ON activity.parent = path.id WHERE activity.id != 0 AND path.depth < 64)"
+            + " SELECT log.start, log.end, log.what, path.path AS activity, meansOfTransport.name AS transport,"
+            + " (SELECT group_concat(person.name, '" + CsvRecordReader.LIST_SEPARATOR + "') FROM qualityTime"
+            + " JOIN person ON person.id = qualityTime.person WHERE qualityTime.logEntry = log.id) AS people"
+            + " FROM log LEFT JOIN path ON path.id = log.activity"
+            + " LEFT JOIN meansOfTransport ON meansOfTransport.id = log.transport"
+            + " WHERE log.end IS NOT NULL";
+
+    private LogExporter() {
+    }
+
+    public static int export(Path file, LocalDateTime from, LocalDateTime to) throws IOException {
+        try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return export(writer, from, to);
+        }
+    }
+
+    public static int export(Writer writer, LocalDateTime from, LocalDateTime to) throws IOException {
+        String sql = SELECT_SQL;
+        if (from != null) sql += " AND log.end >= ?";
+        if (to != null) sql += " AND log.end < ?";
+        writeRow(writer, COLUMNS);
+        try {
+            return Database.execute(sql + " ORDER BY log.end", statement -> {
+                statement.setFetchSize(Math.max(1, Preferences.getInt("CursorFetchSize")));
+                int param = 1;
+                if (from != null) statement.setTimestamp(param++, Timestamp.valueOf(from));
+                if (to != null) statement.setTimestamp(param, Timestamp.valueOf(to));
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final ResultView view = new ResultView(resultSet);
+                    int rows = 0;
+                    while (!Thread.currentThread().isInterrupted() && resultSet.next()) {
+                        final LocalDateTime start = view.getDateTime("start"), end = view.getDateTime("end");
+                        writeRow(writer, List.of(
+                                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(start),
+                                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(end),
+                                String.valueOf(Duration.between(start, end).getSeconds()),
+                                nullToEmpty(resultSet.getString("activity")),
+                                nullToEmpty(resultSet.getString("what")),
+                                nullToEmpty(resultSet.getString("transport")),
+                                nullToEmpty(resultSet.getString("people"))
+                        ));
+                        rows++;
+                    }
+                    return rows;
+                }
+            }, 0);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeRow(Writer writer, List<String> fields) {
+        try {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) writer.write(CsvRecordReader.SEPARATOR);
+                writer.write(escape(fields.get(i)));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(String field) {
+        if (field.indexOf(CsvRecordReader.SEPARATOR) == -1 && field.indexOf('"') == -1
+                && field.indexOf('\n') == -1 && field.indexOf('\r') == -1)
+            return field;
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,264 @@
+package de.julianpadawan.timelog.io;
+
+import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.LogBatchWriter;
+import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.MeansOfTransport;
+import de.julianpadawan.timelog.model.Person;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+public final class LogImporter {
+    public static final String PATH_SEPARATOR = "/";
+
+    private static final String DEFAULT_COLOR = "#DDDDDDFF";
+    private static final int MAX_PROBLEMS = 100;
+    private static final List<DateTimeFormatter> TIME_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]"),
+            LogEntry.FORMATTER
+    );
+
+    private final Path file;
+    private final boolean dryRun;
+    private final LogBatchWriter writer;
+    private final Progress progress;
+    private final Map<String, Integer> activities = new HashMap<>(), persons = new HashMap<>(), transports = new HashMap<>();
+    private final Result result = new Result();
+    private int placeholders = 0;
+
+    private LogImporter(Path file, boolean dryRun, Progress progress) {
+        this.file = file;
+        this.dryRun = dryRun;
+        this.writer = dryRun ? null : new LogBatchWriter();
+        this.progress = progress;
+    }
+
+    public static Result validate(Path file, Progress progress) throws IOException {
+        return new LogImporter(file, true, progress).run();
+    }
+
+    public static Result importFile(Path file, Progress progress) throws IOException {
+        return new LogImporter(file, false, progress).run();
+    }
+
+    public static String getPath(Activity activity) {
+        final Deque<String> names = new ArrayDeque<>();
+        for (Activity current = activity; current.getId() != 0; current = current.getParent())
+            names.push(current.getName());
+        return String.join(PATH_SEPARATOR, names);
+    }
+
+    private Result run() throws IOException {
+        for (Activity activity : Activity.FACTORY.getAll())
+            if (activity.getId() != 0) activities.putIfAbsent(getPath(activity), activity.getId());
+        for (Person person : Person.FACTORY.getAll()) persons.putIfAbsent(person.getName(), person.getId());
+        for (MeansOfTransport transport : MeansOfTransport.FACTORY.getAll())
+            transports.putIfAbsent(transport.getName(), transport.getId());
+
+        final long size = Math.max(1, Files.size(file));
+        try (final CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+             final RecordReader records = RecordReader.of(file,
+                     new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)))) {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Map<String, Object> record;
+                try {
+                    record = records.next();
+                } catch (RecordReader.FormatException e) {
+                    result.addProblem(e.getMessage());
+                    continue;
+                }
+                if (record == null) {
+                    result.complete = true;
+                    break;
+                }
+                try {
+                    if (!importRecord(record)) break;
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    result.addProblem("line " + records.getLine() + ": " + e.getMessage());
+                }
+                progress.update(input.count, size);
+            }
+        }
+        if (writer != null) {
+            if (!writer.flush()) result.complete = false;
+            result.written = writer.getWritten();
+            result.createdActivities = writer.getCreatedActivities().size();
+            result.createdPersons = writer.getCreatedPersons().size();
+            result.createdTransports = writer.getCreatedTransports().size();
+            Activity.FACTORY.prefetch(writer.getCreatedActivities());
+            MeansOfTransport.FACTORY.prefetch(writer.getCreatedTransports());
+        }
+        return result;
+    }
+
+    private boolean importRecord(Map<String, Object> record) {
+        final LocalDateTime start = parseTime(record, "start"), end = parseTime(record, "end");
+        if (end.isBefore(start)) throw new IllegalArgumentException("end is before start");
+        final int activity = resolveActivity(getString(record, "activity"));
+        final String what = Objects.requireNonNullElse(getString(record, "what"), "");
+        final String transportName = getString(record, "transport");
+        final Integer transport = transportName == null || transportName.isBlank() ? null : resolveTransport(transportName.trim());
+        final Set<Integer> entryPersons = new LinkedHashSet<>();
+        for (String name : getList(record, "people"))
+            if (!name.isBlank()) entryPersons.add(resolvePerson(name.trim()));
+
+        result.entries++;
+        return writer == null || writer.add(activity, what, start, end, transport, entryPersons);
+    }
+
+    private int resolveActivity(String path) {
+        if (path == null || path.isBlank()) throw new IllegalArgumentException("activity is missing");
+        int parent = 0;
+        String parentPath = null;
+        for (String segment : path.split(PATH_SEPARATOR)) {
+            final String name = segment.trim();
+            if (name.isEmpty()) continue;
+            final String currentPath = parentPath == null ? name : parentPath + PATH_SEPARATOR + name;
+            Integer id = activities.get(currentPath);
+            if (id == null) {
+                id = dryRun ? --placeholders : writer.addActivity(parent, name, DEFAULT_COLOR, 0d);
+                activities.put(currentPath, id);
+                result.createdActivities++;
+            }
+            parent = id;
+            parentPath = currentPath;
+        }
+        if (parentPath == null) throw new IllegalArgumentException("activity is missing");
+        return parent;
+    }
+
+    private int resolvePerson(String name) {
+        Integer id = persons.get(name);
+        if (id == null) {
+            id = dryRun ? --placeholders : writer.addPerson(name, 1d);
+            persons.put(name, id);
+            result.createdPersons++;
+        }
+        return id;
+    }
+
+    private int resolveTransport(String name) {
+        Integer id = transports.get(name);
+        if (id == null) {
+            id = dryRun ? --placeholders : writer.addTransport(name);
+            transports.put(name, id);
+            result.createdTransports++;
+        }
+        return id;
+    }
+
+    private static LocalDateTime parseTime(Map<String, Object> record, String field) {
+        final String value = getString(record, field);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(field + " is missing");
+        for (DateTimeFormatter format : TIME_FORMATS)
+            try {
+                return LocalDateTime.parse(value.trim(), format);
+            } catch (DateTimeParseException ignored) {
+            }
+        throw new IllegalArgumentException("unreadable " + field + " '" + value + "'");
+    }
+
+    private static String getString(Map<String, Object> record, String field) {
+        final Object value = record.get(field);
+        if (value == null) return null;
+        if (value instanceof String) return (String) value;
+        throw new IllegalArgumentException(field + " must not be a list");
+    }
+
+    private static List<String> getList(Map<String, Object> record, String field) {
+        final Object value = record.get(field);
+        if (value == null) return List.of();
+        if (value instanceof String)
+            return ((String) value).isBlank() ? List.of() : Arrays.asList(((String) value).split(CsvRecordReader.LIST_SEPARATOR));
+        @SuppressWarnings("unchecked") final List<String> list = (List<String>) value;
+        return list;
+    }
+
+    public interface Progress {
+        void update(long done, long total);
+    }
+
+    public static final class Result {
+        private final List<String> problems = new ArrayList<>();
+        private int entries, written, skipped, createdActivities, createdPersons, createdTransports;
+        private boolean complete;
+
+        private void addProblem(String problem) {
+            skipped++;
+            if (problems.size() < MAX_PROBLEMS) problems.add(problem);
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public int getWritten() {
+            return written;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getCreatedActivities() {
+            return createdActivities;
+        }
+
+        public int getCreatedPersons() {
+            return createdPersons;
+        }
+
+        public int getCreatedTransports() {
+            return createdTransports;
+        }
+
+        public List<String> getProblems() {
+            return Collections.unmodifiableList(problems);
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read != -1) count++;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.julianpadawan.timelog.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+abstract class RecordReader implements Closeable {
+    protected final BufferedReader reader;
+    protected int line = 0;
+    private int recordLine;
+
+    protected RecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static RecordReader of(Path file, BufferedReader reader) throws IOException {
+        final String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) return new CsvRecordReader(reader);
+        if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson"))
+            return new JsonLinesRecordReader(reader);
+        throw new IOException("unsupported file type: " + file.getFileName());
+    }
+
+    final Map<String, Object> next() throws IOException {
+        recordLine = line + 1;
+        return readRecord();
+    }
+
+    protected abstract Map<String, Object> readRecord() throws IOException;
+
+    final int getLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    static final class FormatException extends IOException {
+        FormatException(String message) {
+            super(message);
+        }
+    }
+}
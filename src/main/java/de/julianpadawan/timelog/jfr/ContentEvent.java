@@ -0,0 +1,37 @@
+package de.julianpadawan.timelog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.IntSupplier;
+
+@Name("de.julianpadawan.timelog.Content")
+@Label("Dialog Content")
+@Category("TimeLog")
+public final class ContentEvent extends Event {
+    @Label("Dialog")
+    private String dialog;
+    @Label("Range")
+    private String range;
+    @Label("Rows")
+    private int rows;
+
+    private final transient Object from, to;
+
+    public ContentEvent(String dialog, Object from, Object to) {
+        this.dialog = dialog;
+        this.from = from;
+        this.to = to;
+        begin();
+    }
+
+    public void finish(IntSupplier rows) {
+        end();
+        if (!shouldCommit()) return;
+        this.range = to == null ? String.valueOf(from) : from + " - " + to;
+        this.rows = rows.getAsInt();
+        commit();
+    }
+}
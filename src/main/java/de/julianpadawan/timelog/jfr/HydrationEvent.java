@@ -0,0 +1,31 @@
+package de.julianpadawan.timelog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("de.julianpadawan.timelog.Hydration")
+@Label("Log Entry Hydration")
+@Category("TimeLog")
+public final class HydrationEvent extends Event {
+    @Label("Rows")
+    private int rows;
+    @Label("Activities")
+    private int activities;
+    @Label("Means Of Transport")
+    private int transports;
+
+    public HydrationEvent(int rows) {
+        this.rows = rows;
+        begin();
+    }
+
+    public void finish(int activities, int transports) {
+        end();
+        if (!shouldCommit()) return;
+        this.activities = activities;
+        this.transports = transports;
+        commit();
+    }
+}
@@ -0,0 +1,42 @@
+package de.julianpadawan.timelog.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+public final class Recorder {
+    private static final String CONFIGURATION = "default";
+
+    private static Recording recording;
+
+    private Recorder() {
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    public static synchronized void start(Path destination) throws IOException, ParseException {
+        if (recording != null) throw new IllegalStateException("already recording");
+        final Recording started = new Recording(Configuration.getConfiguration(CONFIGURATION));
+        started.setName("TimeLog");
+        started.setDestination(destination);
+        started.start();
+        recording = started;
+    }
+
+    public static synchronized Path stop() {
+        if (recording == null) throw new IllegalStateException("not recording");
+        final Path destination = recording.getDestination();
+        try {
+            recording.stop();
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        return destination;
+    }
+}
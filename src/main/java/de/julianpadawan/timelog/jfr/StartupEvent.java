@@ -0,0 +1,31 @@
+package de.julianpadawan.timelog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("de.julianpadawan.timelog.Startup")
+@Label("Main Scene Startup")
+@Category("TimeLog")
+public final class StartupEvent extends Event {
+    @Label("From Snapshot")
+    private boolean snapshot;
+
+    @Label("Construction")
+    @Timespan(Timespan.NANOSECONDS)
+    private long construction;
+
+    public StartupEvent() {
+        begin();
+    }
+
+    public void finish(boolean snapshot, long construction) {
+        end();
+        if (!shouldCommit()) return;
+        this.snapshot = snapshot;
+        this.construction = construction;
+        commit();
+    }
+}
@@ -0,0 +1,42 @@
+package de.julianpadawan.timelog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.LocalDateTime;
+
+@Name("de.julianpadawan.timelog.Statistic")
+@Label("Statistic")
+@Category("TimeLog")
+@Description("Computation of a report statistic; durations are summed in whole milliseconds per log entry")
+public final class StatisticEvent extends Event {
+    @Label("Statistic")
+    private String statistic;
+    @Label("Source")
+    private String source;
+    @Label("From")
+    private String from;
+    @Label("To")
+    private String to;
+    @Label("Rows")
+    @Description("Log entries, or rollup rows for the rollup source, that were aggregated")
+    private int rows;
+
+    public StatisticEvent(String statistic, String source) {
+        this.statistic = statistic;
+        this.source = source;
+        begin();
+    }
+
+    public void finish(LocalDateTime from, LocalDateTime to, int rows) {
+        end();
+        if (!shouldCommit()) return;
+        this.from = String.valueOf(from);
+        this.to = String.valueOf(to);
+        this.rows = rows;
+        commit();
+    }
+}
@@ -0,0 +1,37 @@
+package de.julianpadawan.timelog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+@Name("de.julianpadawan.timelog.Streak")
+@Label("Streak Scan")
+@Category("TimeLog")
+public final class StreakEvent extends Event {
+    @Label("Goal IDs")
+    private String goals;
+    @Label("Reference Time")
+    private String referenceTime;
+    @Label("Rows")
+    private int rows;
+
+    private final transient LocalDateTime reference;
+
+    public StreakEvent(LocalDateTime referenceTime) {
+        this.reference = referenceTime;
+        begin();
+    }
+
+    public void finish(Supplier<String> goals, int rows) {
+        end();
+        if (!shouldCommit()) return;
+        this.goals = goals.get();
+        this.referenceTime = String.valueOf(reference);
+        this.rows = rows;
+        commit();
+    }
+}
@@ -10,7 +10,14 @@ import javafx.beans.value.ObservableStringValue;
 
 import java.sql.ResultSet;
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An activity is effectively immutable once hydrated: instances may be created and read on any thread, but they are
+ * only modified on the FX thread. The setters and {@link ActivityFactory#update(Activity)} refuse to run on a
+ * {@link DatabaseExecutor} thread.
+ */
 public final class Activity extends ModelObject<Activity> {
     public static final String DEFAULT_COLOR = "#e6e6e6";
     public static final ActivityFactory FACTORY = new ActivityFactory();
@@ -47,6 +54,7 @@ public final class Activity extends ModelObject<Activity> {
     private Activity(int id, int parentId, String name, String color, double pointsPerMinute) {
         super(id);
         this.parentId.setValue(id == parentId ? 0 : parentId); // security measure, should never happen
+        this.parentId.addListener(observable -> FACTORY.invalidateTree());
         this.name.setValue(Objects.requireNonNull(name));
         this.color.setValue(Objects.requireNonNull(color));
         this.pointsPerMinute.setValue(pointsPerMinute);
@@ -66,6 +74,7 @@ public final class Activity extends ModelObject<Activity> {
     }
 
     public void setParent(Activity parent) {
+        DatabaseExecutor.checkNotDatabaseThread("changing an activity");
         if (getId() == 0) return;
         if (getId() == parent.getId()) throw new IllegalArgumentException("activity can't be parent of itself");
         parentId.setValue(Objects.requireNonNull(parent).getId());
@@ -88,6 +97,7 @@ public final class Activity extends ModelObject<Activity> {
     }
 
     public void setName(String value) {
+        DatabaseExecutor.checkNotDatabaseThread("changing an activity");
         name.setValue(Objects.requireNonNull(value));
     }
 
@@ -100,6 +110,7 @@ public final class Activity extends ModelObject<Activity> {
     }
 
     public void setColor(String value) {
+        DatabaseExecutor.checkNotDatabaseThread("changing an activity");
         color.setValue(Objects.requireNonNull(value));
     }
 
@@ -112,6 +123,7 @@ public final class Activity extends ModelObject<Activity> {
     }
 
     public void setPointsPerMinute(double value) {
+        DatabaseExecutor.checkNotDatabaseThread("changing an activity");
         pointsPerMinute.setValue(value);
     }
 
@@ -152,14 +164,19 @@ public final class Activity extends ModelObject<Activity> {
     }
 
     public boolean instanceOf(Activity activity) {
+        final TreeIndex tree = FACTORY.getTree();
+        final int[] own = tree.get(this), other = tree.get(activity);
+        if (own != null && other != null) return other[0] <= own[0] && own[1] <= other[1];
         if (activity.equals(this)) return true;
         if (getDepth() < activity.getDepth()) return false;
         return getParent().instanceOf(activity);
     }
 
     public static final class ActivityFactory extends ModelFactory<Activity> {
-        private final Map<Integer, Activity> activityMap = new HashMap<>();
-        private boolean loaded;
+        private final Map<Integer, Activity> activityMap = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+        private final AtomicInteger treeVersion = new AtomicInteger();
+        private volatile TreeIndex tree;
 
         private ActivityFactory() {
             super(view -> new Activity(
@@ -180,8 +197,8 @@ public final class Activity extends ModelObject<Activity> {
         @Override
         public Collection<Activity> getAll() {
             if (!loaded) {
-                loaded = true;
                 super.getAll().forEach(this::putActivity);
+                loaded = true;
             }
             return activityMap.values();
         }
@@ -199,17 +216,29 @@ public final class Activity extends ModelObject<Activity> {
         public Activity createNew(Object... params) {
             final Activity activity = super.createNew(params);
             putActivity(activity);
+            invalidateTree();
             return activity;
         }
 
         @Override
         public boolean update(Activity obj) {
+            DatabaseExecutor.checkNotDatabaseThread("updating an activity");
             activityMap.put(obj.getId(), obj);
+            invalidateTree();
             return super.update(obj);
         }
 
+        public void prefetch(Collection<Integer> ids) {
+            final List<Integer> missing = new ArrayList<>();
+            for (Integer id : ids) if (!activityMap.containsKey(id)) missing.add(id);
+            if (missing.isEmpty()) return;
+            if (missing.size() > SqlUtil.MAX_PARAMETERS) getAll();
+            else selectWhere(this::selectAll, SqlUtil.in("id", missing.size()), missing.size(),
+                    (statement, param) -> statement.setInt(param, missing.get(param - 1))).forEach(this::putActivity);
+        }
+
         public Collection<Activity> getAllChildren(Activity parent) {
-            return Database.execute("SELECT id FROM activity WHERE id != 0 AND parent = ? ORDER BY name", statement -> {
+            return StatementCache.query("SELECT id FROM activity WHERE id != 0 AND parent = ? ORDER BY name", statement -> {
                 statement.setInt(1, parent.getId());
                 try (final ResultSet resultSet = statement.executeQuery()) {
                     List<Activity> result = new LinkedList<>();
@@ -219,6 +248,15 @@ public final class Activity extends ModelObject<Activity> {
             }, Collections.emptyList());
         }
 
+        void restore(int id, int parent, String name, String color, double pointsPerMinute) {
+            putActivity(new Activity(id, parent, name, color, pointsPerMinute));
+        }
+
+        void restored() {
+            loaded = true;
+            invalidateTree();
+        }
+
         private void putActivity(Activity activity) {
             activityMap.putIfAbsent(activity.getId(), activity);
         }
@@ -226,6 +264,64 @@ public final class Activity extends ModelObject<Activity> {
         public void clearCache() {
             activityMap.clear();
             loaded = false;
+            invalidateTree();
+        }
+
+        private void invalidateTree() {
+            treeVersion.incrementAndGet();
+        }
+
+        private TreeIndex getTree() {
+            final TreeIndex current = tree;
+            if (current != null && current.version == treeVersion.get()) return current;
+            return buildTree();
+        }
+
+        private synchronized TreeIndex buildTree() {
+            final int version = treeVersion.get();
+            if (tree != null && tree.version == version) return tree;
+            // an invalidation while building leaves the old version in the index, so the next reader rebuilds
+            return tree = new TreeIndex(version, getAll(), activityMap.get(0));
+        }
+    }
+
+    /**
+     * Immutable Euler tour of the activity tree: every indexed activity maps to its enter and exit number, and an
+     * activity is an instance of another exactly if its interval lies within the other's.
+     */
+    private static final class TreeIndex {
+        private final int version;
+        private final Map<Activity, int[]> intervals = new IdentityHashMap<>();
+
+        private TreeIndex(int version, Collection<Activity> activities, Activity root) {
+            this.version = version;
+            if (root == null) return;
+            final Map<Integer, List<Activity>> children = new HashMap<>();
+            for (Activity activity : activities)
+                if (activity.getId() != 0)
+                    children.computeIfAbsent(activity.parentId.get(), id -> new ArrayList<>()).add(activity);
+
+            int counter = 0;
+            intervals.put(root, new int[]{counter++, 0});
+            final Deque<Activity> path = new ArrayDeque<>(List.of(root));
+            final Deque<Iterator<Activity>> pending = new ArrayDeque<>();
+            pending.push(children.getOrDefault(0, Collections.emptyList()).iterator());
+            while (!pending.isEmpty()) {
+                if (pending.peek().hasNext()) {
+                    final Activity child = pending.peek().next();
+                    if (intervals.containsKey(child)) continue;
+                    intervals.put(child, new int[]{counter++, 0});
+                    path.push(child);
+                    pending.push(children.getOrDefault(child.getId(), Collections.emptyList()).iterator());
+                } else {
+                    pending.pop();
+                    intervals.get(path.pop())[1] = counter++;
+                }
+            }
+        }
+
+        private int[] get(Activity activity) {
+            return intervals.get(activity);
         }
     }
 }
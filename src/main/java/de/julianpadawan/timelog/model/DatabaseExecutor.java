@@ -0,0 +1,65 @@
+package de.julianpadawan.timelog.model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs database reads off the FX thread.
+ * <p>
+ * Model objects hydrated here are published through the factory caches with put-if-absent only and are treated as
+ * immutable afterwards: they are changed and written back exclusively on the FX thread, which
+ * {@link #checkNotDatabaseThread(String)} enforces for the model mutators.
+ */
+public final class DatabaseExecutor {
+    private static final int POOL_SIZE = 4;
+    private static final ExecutorService EXECUTOR = createExecutor();
+    private static final ThreadLocal<Boolean> DATABASE_THREAD = ThreadLocal.withInitial(() -> false);
+
+    private DatabaseExecutor() {
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+                final Thread thread = new Thread(runnable, "Database " + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public static <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            DATABASE_THREAD.set(true);
+            try {
+                return supplier.get();
+            } finally {
+                DATABASE_THREAD.remove();
+            }
+        }, EXECUTOR);
+    }
+
+    public static CompletableFuture<Void> run(Runnable runnable) {
+        return supply(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public static void checkNotDatabaseThread(String modification) {
+        if (DATABASE_THREAD.get())
+            throw new IllegalStateException(modification + " must not be done on a database thread");
+    }
+
+    public static boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        EXECUTOR.shutdown();
+        return EXECUTOR.awaitTermination(timeout, unit);
+    }
+}
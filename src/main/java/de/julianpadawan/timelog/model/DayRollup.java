@@ -0,0 +1,91 @@
+package de.julianpadawan.timelog.model;
+
+import de.julianpadawan.common.db.Database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public final class DayRollup {
+    private static final String REBUILD = "INSERT INTO dayRollup (day, activity, millis, entries)"
+            + " SELECT date(end / 1000, 'unixepoch', 'localtime', ? || ' minutes'), activity,"
+            + " sum(end - start), count(*)"
+            + " FROM log WHERE end IS NOT NULL GROUP BY 1, 2";
+
+    private static volatile boolean available;
+
+    private final long millis;
+    private final int entries;
+
+    private DayRollup(long millis, int entries) {
+        this.millis = millis;
+        this.entries = entries;
+    }
+
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    public static CompletableFuture<Boolean> ensureStartOfDay(LocalTime startOfDay) {
+        available = false;
+        final int minutes = startOfDay.toSecondOfDay() / 60;
+        final Integer current = Database.execute("SELECT startOfDay FROM dayRollupConfig", statement -> {
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : null;
+            }
+        }, null);
+        if (current == null) return CompletableFuture.completedFuture(false);
+        if (current == minutes) {
+            available = true;
+            return CompletableFuture.completedFuture(true);
+        }
+        return DatabaseExecutor.supply(() -> available = rebuild(minutes));
+    }
+
+    private static boolean rebuild(int minutes) {
+        return Transaction.run(connection -> {
+            try (final Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE dayRollupConfig SET startOfDay = -1");
+                statement.executeUpdate("DELETE FROM dayRollup");
+            }
+            try (final PreparedStatement statement = connection.prepareStatement(REBUILD)) {
+                statement.setInt(1, -minutes);
+                statement.executeUpdate();
+            }
+            try (final PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE dayRollupConfig SET startOfDay = ?")) {
+                statement.setInt(1, minutes);
+                statement.executeUpdate();
+            }
+            return true;
+        }, false);
+    }
+
+    public static Map<Integer, DayRollup> getTotalsBetween(LocalDate beginInclusive, LocalDate endExclusive) {
+        return StatementCache.query("SELECT activity, sum(millis), sum(entries) FROM dayRollup"
+                + " WHERE day >= ? AND day < ? GROUP BY activity", statement -> {
+            statement.setString(1, beginInclusive.toString());
+            statement.setString(2, endExclusive.toString());
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final Map<Integer, DayRollup> result = new HashMap<>();
+                while (resultSet.next())
+                    result.put(resultSet.getInt(1), new DayRollup(resultSet.getLong(2), resultSet.getInt(3)));
+                return result;
+            }
+        }, Collections.emptyMap());
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+}
@@ -12,7 +12,9 @@ import javafx.beans.property.StringProperty;
 import javafx.beans.value.ObservableStringValue;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 public final class Goal extends ModelObject<Goal> {
     public static final GoalFactory FACTORY = new GoalFactory();
@@ -125,5 +127,9 @@ public final class Goal extends ModelObject<Goal> {
                             .withColumn("person", ColumnType.getForeignKeyColumn(Person.class), Goal::getPerson)
             );
         }
+
+        public CompletableFuture<Collection<Goal>> getAllAsync() {
+            return DatabaseExecutor.supply(this::getAll);
+        }
     }
 }
@@ -0,0 +1,214 @@
+package de.julianpadawan.timelog.model;
+
+import javafx.application.Platform;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+public final class InstrumentedDriver implements Driver {
+    private static final String PREFIX = "jdbc:timelog:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new InstrumentedDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private InstrumentedDriver() {
+    }
+
+    public static String wrap(String url) {
+        if (!url.startsWith("jdbc:")) throw new IllegalArgumentException("not a jdbc url: " + url);
+        return PREFIX + url.substring("jdbc:".length());
+    }
+
+    private static String unwrap(String url) {
+        return "jdbc:" + url.substring(PREFIX.length());
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDriver.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) return null;
+        final Connection connection = DriverManager.getConnection(unwrap(url), info);
+        return proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return DriverManager.getDriver(unwrap(url)).getPropertyInfo(unwrap(url), info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final Object result = InstrumentedDriver.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (Connection) proxy, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, new StatementHandler((Statement) result, (Connection) proxy, null));
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private Execution pending;
+
+        private StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (name.startsWith("execute")) return execute(proxy, method, args);
+            if (name.equals("getConnection")) return connection;
+            if (name.equals("getResultSet")) return resultSet(proxy, (ResultSet) InstrumentedDriver.invoke(target, method, args));
+            if (name.equals("close")) finish();
+            else if (name.equals("clearParameters")) parameters.clear();
+            else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && method.getDeclaringClass().equals(PreparedStatement.class))
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            return InstrumentedDriver.invoke(target, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finish();
+            final String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            final Execution execution = new Execution(executed, new TreeMap<>(parameters));
+            final Object result = InstrumentedDriver.invoke(target, method, args);
+            if (result instanceof ResultSet) {
+                pending = execution;
+                return resultSet(proxy, (ResultSet) result);
+            }
+            if (Boolean.TRUE.equals(result)) {
+                pending = execution;
+                return result;
+            }
+            if (Boolean.FALSE.equals(result)) execution.rows = Math.max(0, target.getUpdateCount());
+            else if (result instanceof Integer || result instanceof Long) execution.rows = ((Number) result).longValue();
+            else if (result instanceof int[]) for (int count : (int[]) result) execution.rows += Math.max(0, count);
+            else if (result instanceof long[]) for (long count : (long[]) result) execution.rows += Math.max(0, count);
+            execution.finish();
+            return result;
+        }
+
+        private ResultSet resultSet(Object proxy, ResultSet resultSet) {
+            if (resultSet == null) return null;
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet, (Statement) proxy, this));
+        }
+
+        private void finish() {
+            if (pending == null) return;
+            pending.finish();
+            pending = null;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Statement statement;
+        private final StatementHandler owner;
+
+        private ResultSetHandler(ResultSet target, Statement statement, StatementHandler owner) {
+            this.target = target;
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    final Object next = InstrumentedDriver.invoke(target, method, args);
+                    if (Boolean.TRUE.equals(next) && owner.pending != null) owner.pending.rows++;
+                    return next;
+                case "close":
+                    owner.finish();
+                    return InstrumentedDriver.invoke(target, method, args);
+                case "getStatement":
+                    return statement;
+                default:
+                    return InstrumentedDriver.invoke(target, method, args);
+            }
+        }
+    }
+
+    private static final class Execution {
+        private final String sql, thread;
+        private final boolean fxThread = Platform.isFxApplicationThread();
+        private final Map<Integer, Object> parameters;
+        private final long start = System.nanoTime();
+        private long rows;
+
+        private Execution(String sql, Map<Integer, Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.thread = Thread.currentThread().getName();
+        }
+
+        private void finish() {
+            QueryStatistics.record(sql, thread, fxThread, System.nanoTime() - start, rows, parameters);
+        }
+    }
+}
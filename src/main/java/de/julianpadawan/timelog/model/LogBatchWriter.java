@@ -0,0 +1,199 @@
+package de.julianpadawan.timelog.model;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Writes log entries in chunks, each in its own transaction. Activities, people and means of transport the entries
+ * need can be registered up front under negative placeholder ids; they are inserted in the transaction of the first
+ * chunk that references them, so a rolled back chunk never leaves them behind.
+ */
+public final class LogBatchWriter {
+    public static final int DEFAULT_CHUNK_SIZE = 2000;
+
+    private static final String LAST_ID_SQL = "SELECT max(coalesce((SELECT max(id) FROM log), 0),"
+            + " coalesce((SELECT seq FROM sqlite_sequence WHERE name = 'log'), 0))";
+    private static final String INSERT_LOG_SQL = "INSERT INTO log (id, activity, what, transport, start, end)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_QUALITY_TIME_SQL = "INSERT INTO qualityTime (logEntry, person) VALUES (?, ?)";
+    private static final String INSERT_ACTIVITY_SQL = "INSERT INTO activity (parent, name, color, pointsPerMinute)"
+            + " VALUES (?, ?, ?, ?)";
+    private static final String INSERT_PERSON_SQL = "INSERT INTO person (name, pointsFactor) VALUES (?, ?)";
+    private static final String INSERT_TRANSPORT_SQL = "INSERT INTO meansOfTransport (name) VALUES (?)";
+
+    private final int chunkSize;
+    private final List<Pending> pending = new ArrayList<>();
+    private final Map<Integer, Created> created = new LinkedHashMap<>();
+    private final Map<Integer, Integer> resolved = new HashMap<>();
+    private final List<Integer> createdActivities = new ArrayList<>(), createdPersons = new ArrayList<>(),
+            createdTransports = new ArrayList<>();
+    private int written, placeholders;
+
+    public LogBatchWriter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public LogBatchWriter(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+        this.chunkSize = chunkSize;
+    }
+
+    public int addActivity(int parent, String name, String color, double pointsPerMinute) {
+        return register(new Created(INSERT_ACTIVITY_SQL, parent, createdActivities, name, color, pointsPerMinute));
+    }
+
+    public int addPerson(String name, double pointsFactor) {
+        return register(new Created(INSERT_PERSON_SQL, null, createdPersons, name, pointsFactor));
+    }
+
+    public int addTransport(String name) {
+        return register(new Created(INSERT_TRANSPORT_SQL, null, createdTransports, name));
+    }
+
+    private int register(Created record) {
+        created.put(--placeholders, record);
+        return placeholders;
+    }
+
+    public boolean add(int activity, String what, LocalDateTime start, LocalDateTime end, Integer transport,
+                       Collection<Integer> persons) {
+        pending.add(new Pending(activity, what, start, end, transport, persons));
+        return pending.size() < chunkSize || flush();
+    }
+
+    public boolean flush() {
+        if (pending.isEmpty()) return true;
+        final Map<Integer, Integer> chunk = new HashMap<>();
+        final int flushed = Transaction.run(connection -> write(connection, chunk), 0);
+        written += flushed;
+        pending.clear();
+        if (flushed > 0) {
+            chunk.forEach((placeholder, id) -> created.remove(placeholder).committed.add(id));
+            resolved.putAll(chunk);
+            LogEntry.FACTORY.clearCache();
+        }
+        return flushed > 0;
+    }
+
+    private int write(Connection connection, Map<Integer, Integer> chunk) throws SQLException {
+        insertCreated(connection, chunk);
+        int id = lastId(connection);
+        try (final PreparedStatement log = connection.prepareStatement(INSERT_LOG_SQL);
+             final PreparedStatement qualityTime = connection.prepareStatement(INSERT_QUALITY_TIME_SQL)) {
+            for (Pending entry : pending) {
+                id++;
+                log.setInt(1, id);
+                log.setInt(2, resolve(entry.activity, chunk));
+                log.setString(3, entry.what);
+                if (entry.transport == null) log.setNull(4, Types.INTEGER);
+                else log.setInt(4, resolve(entry.transport, chunk));
+                log.setTimestamp(5, Timestamp.valueOf(entry.start));
+                if (entry.end == null) log.setNull(6, Types.INTEGER);
+                else log.setTimestamp(6, Timestamp.valueOf(entry.end));
+                log.addBatch();
+                for (Integer person : entry.persons) {
+                    qualityTime.setInt(1, id);
+                    qualityTime.setInt(2, resolve(person, chunk));
+                    qualityTime.addBatch();
+                }
+            }
+            log.executeBatch();
+            qualityTime.executeBatch();
+        }
+        return pending.size();
+    }
+
+    private void insertCreated(Connection connection, Map<Integer, Integer> chunk) throws SQLException {
+        final Set<Integer> needed = new HashSet<>();
+        for (Pending entry : pending) {
+            int activity = entry.activity;
+            while (created.containsKey(activity) && needed.add(activity)) activity = created.get(activity).parent;
+            if (entry.transport != null && created.containsKey(entry.transport)) needed.add(entry.transport);
+            for (Integer person : entry.persons) if (created.containsKey(person)) needed.add(person);
+        }
+        // registration order puts every parent before its children
+        for (Map.Entry<Integer, Created> entry : created.entrySet()) {
+            if (!needed.contains(entry.getKey())) continue;
+            final Created record = entry.getValue();
+            try (final PreparedStatement statement =
+                         connection.prepareStatement(record.sql, Statement.RETURN_GENERATED_KEYS)) {
+                int param = 1;
+                if (record.parent != null) statement.setInt(param++, resolve(record.parent, chunk));
+                for (Object value : record.values) statement.setObject(param++, value);
+                statement.executeUpdate();
+                try (final ResultSet keys = statement.getGeneratedKeys()) {
+                    if (!keys.next()) throw new SQLException("no id generated for " + record.sql);
+                    chunk.put(entry.getKey(), keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    private int resolve(int id, Map<Integer, Integer> chunk) {
+        if (id >= 0) return id;
+        final Integer committed = resolved.get(id);
+        return committed != null ? committed : chunk.get(id);
+    }
+
+    private static int lastId(Connection connection) throws SQLException {
+        try (final PreparedStatement statement = connection.prepareStatement(LAST_ID_SQL);
+             final ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public List<Integer> getCreatedActivities() {
+        return Collections.unmodifiableList(createdActivities);
+    }
+
+    public List<Integer> getCreatedPersons() {
+        return Collections.unmodifiableList(createdPersons);
+    }
+
+    public List<Integer> getCreatedTransports() {
+        return Collections.unmodifiableList(createdTransports);
+    }
+
+    private static final class Created {
+        private final String sql;
+        private final Integer parent;
+        private final List<Integer> committed;
+        private final Object[] values;
+
+        private Created(String sql, Integer parent, List<Integer> committed, Object... values) {
+            this.sql = sql;
+            this.parent = parent;
+            this.committed = committed;
+            this.values = values;
+        }
+    }
+
+    private static final class Pending {
+        private final int activity;
+        private final String what;
+        private final LocalDateTime start, end;
+        private final Integer transport;
+        private final Collection<Integer> persons;
+
+        private Pending(int activity, String what, LocalDateTime start, LocalDateTime end, Integer transport,
+                        Collection<Integer> persons) {
+            this.activity = activity;
+            this.what = Objects.requireNonNull(what);
+            this.start = Objects.requireNonNull(start);
+            this.end = end;
+            this.transport = transport;
+            this.persons = persons;
+        }
+    }
+}
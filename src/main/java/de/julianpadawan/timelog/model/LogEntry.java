@@ -1,6 +1,7 @@
 package de.julianpadawan.timelog.model;
 
 import de.julianpadawan.common.db.*;
+import de.julianpadawan.timelog.jfr.HydrationEvent;
 import de.julianpadawan.timelog.preferences.Preferences;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -13,10 +14,12 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.Collection;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public final class LogEntry extends ModelObject<LogEntry> {
     public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
@@ -147,6 +150,11 @@ public final class LogEntry extends ModelObject<LogEntry> {
                 .withColumn("end", ColumnType.TIMESTAMP, LogEntry::getEnd)
                 .withColumn("transport", ColumnType.getForeignKeyColumn(MeansOfTransport.class), LogEntry::getMeansOfTransport);
 
+        public static final int DAY_CACHE_CAPACITY = 64;
+
+        private final DayCache dayCache = new DayCache();
+        private volatile LogEntryColumns columns;
+
         private LogEntryFactory() {
             super(LogEntryFactory::getFromResultView, TABLE_DEFINITION);
         }
@@ -162,14 +170,128 @@ public final class LogEntry extends ModelObject<LogEntry> {
             );
         }
 
+        public static List<LogEntry> getAllFromResultSet(ResultSet resultSet) throws SQLException {
+            final ResultView view = new ResultView(resultSet);
+            final List<Row> rows = new ArrayList<>();
+            while (resultSet.next()) rows.add(new Row(view));
+            final List<LogEntry> result = new ArrayList<>(rows.size());
+            hydrate(rows, result::add);
+            return result;
+        }
+
+        private static void hydrate(List<Row> rows, Consumer<LogEntry> consumer) {
+            final HydrationEvent event = new HydrationEvent(rows.size());
+            final Set<Integer> activities = new HashSet<>(), transports = new HashSet<>();
+            for (Row row : rows) {
+                activities.add(row.activity);
+                if (row.transport != null) transports.add(row.transport);
+            }
+            Activity.FACTORY.prefetch(activities);
+            MeansOfTransport.FACTORY.prefetch(transports);
+            for (Row row : rows) consumer.accept(row.toLogEntry());
+            event.finish(activities.size(), transports.size());
+        }
+
+        @Override
+        public Collection<LogEntry> getAll() {
+            return Database.execute(definition.getBaseSelectSQL(), statement -> {
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    return getAllFromResultSet(resultSet);
+                }
+            }, Collections.emptyList());
+        }
+
+        @Override
+        public LogEntry createNew(Object... params) {
+            final LogEntry entry = super.createNew(params);
+            if (entry != null) {
+                updateColumns(entry);
+                dayCache.invalidate(entry);
+            }
+            return entry;
+        }
+
+        @Override
+        public boolean update(LogEntry obj) {
+            DatabaseExecutor.checkNotDatabaseThread("updating a log entry");
+            boolean updated = false;
+            try {
+                updated = super.update(obj);
+            } finally {
+                // also on failure, the row may have been written before the error surfaced
+                dayCache.invalidate(obj);
+            }
+            if (updated) updateColumns(obj);
+            return updated;
+        }
+
+        public LogEntryColumns getColumns() {
+            if (columns == null) synchronized (this) {
+                if (columns == null) columns = LogEntryColumns.load();
+            }
+            return columns;
+        }
+
+        private synchronized void updateColumns(LogEntry entry) {
+            if (columns != null) columns = columns.with(entry);
+        }
+
+        public void clearCache() {
+            columns = null;
+            dayCache.clear();
+        }
+
+        public long getDayCacheHits() {
+            return dayCache.getHits();
+        }
+
+        public long getDayCacheMisses() {
+            return dayCache.getMisses();
+        }
+
         public LogEntry getUnfinishedEntry() {
-            return selectWhere(this::selectFirst, "end IS NULL", 0, null);
+            return StatementCache.query(definition.getBaseSelectSQL() + " WHERE end IS NULL", statement -> {
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    return this.selectFirst(resultSet);
+                }
+            }, null);
+        }
+
+        public CompletableFuture<LogEntry> getUnfinishedEntryAsync() {
+            return DatabaseExecutor.supply(this::getUnfinishedEntry);
+        }
+
+        public CompletableFuture<Collection<LogEntry>> getAllFinishedOnDateOfAsync(LocalDateTime reference) {
+            return DatabaseExecutor.supply(() -> getAllFinishedOnDateOf(reference));
+        }
+
+        public CompletableFuture<Collection<LogEntry>> getAllFinishedBetweenAsync(LocalDateTime from, LocalDateTime to) {
+            return DatabaseExecutor.supply(() -> getAllFinishedBetween(from, to));
         }
 
         public Collection<LogEntry> getAllFinishedOnDateOf(LocalDateTime reference) {
             //TODO add second method with Date as parameter
             LocalDate date = getDate(reference);
-            return getAllFinishedBetween(date, date.plus(1, ChronoUnit.DAYS));
+            final DayCache.Lookup lookup = dayCache.lookup(date);
+            final List<Row> rows = lookup.bucket != null ? lookup.bucket : dayCache.put(lookup,
+                    getFinishedRowsBetween(atStartOfDay(date), atStartOfDay(date.plus(1, ChronoUnit.DAYS))));
+            // the cache only holds row data, every caller gets entries of its own to read or edit
+            final List<LogEntry> entries = new ArrayList<>(rows.size());
+            hydrate(rows, entries::add);
+            return entries;
+        }
+
+        private List<Row> getFinishedRowsBetween(final LocalDateTime from, final LocalDateTime to) {
+            return StatementCache.query(definition.getBaseSelectSQL() + " WHERE end >= ? AND end < ? ORDER BY end", statement -> {
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final ResultView view = new ResultView(resultSet);
+                    final List<Row> rows = new ArrayList<>();
+                    while (resultSet.next()) rows.add(new Row(view));
+                    return Collections.unmodifiableList(rows);
+                }
+            }, Collections.emptyList());
         }
 
         public Collection<LogEntry> getAllFinishedBetween(final LocalDate beginInclusive, final LocalDate endExclusive) {
@@ -178,14 +300,60 @@ public final class LogEntry extends ModelObject<LogEntry> {
         }
 
         public Collection<LogEntry> getAllFinishedBetween(final LocalDateTime from, final LocalDateTime to) {
-            return selectWhere(this::selectAll, "end >= ? AND end < ?", 2, (preparedStatement, param) -> {
-                if (param.equals(1)) preparedStatement.setTimestamp(param, Timestamp.valueOf(from));
-                if (param.equals(2)) preparedStatement.setTimestamp(param, Timestamp.valueOf(to));
-            });
+            return StatementCache.query(definition.getBaseSelectSQL() + " WHERE end >= ? AND end < ?", statement -> {
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    return getAllFromResultSet(resultSet);
+                }
+            }, Collections.emptyList());
+        }
+
+        public void forEachFinishedBetween(final LocalDateTime from, final LocalDateTime to, Consumer<LogEntry> consumer) {
+            final LocalDate date = getDate(from);
+            if (from.equals(atStartOfDay(date)) && to.equals(atStartOfDay(date.plus(1, ChronoUnit.DAYS)))) {
+                getAllFinishedOnDateOf(from).forEach(consumer);
+                return;
+            }
+            final int fetchSize = Math.max(1, Preferences.getInt("CursorFetchSize"));
+            Database.execute(definition.getBaseSelectSQL() + " WHERE end >= ? AND end < ? ORDER BY end", statement -> {
+                statement.setFetchSize(fetchSize);
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final ResultView view = new ResultView(resultSet);
+                    final List<Row> chunk = new ArrayList<>(fetchSize);
+                    while (!Thread.currentThread().isInterrupted() && resultSet.next()) {
+                        chunk.add(new Row(view));
+                        if (chunk.size() < fetchSize) continue;
+                        hydrate(chunk, consumer);
+                        chunk.clear();
+                    }
+                    if (!Thread.currentThread().isInterrupted()) hydrate(chunk, consumer);
+                }
+                return null;
+            }, null);
+        }
+
+        public LogEntry getNext(LogEntry previous) {
+            return StatementCache.query(definition.getBaseSelectSQL() + " WHERE id > ? ORDER BY id LIMIT 1", statement -> {
+                statement.setInt(1, previous == null ? 0 : previous.getId());
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    return this.selectFirst(resultSet);
+                }
+            }, null);
+        }
+
+        public CompletableFuture<LogEntry> getLastAsync() {
+            return DatabaseExecutor.supply(this::getLast);
+        }
+
+        public CompletableFuture<LogEntry> getFirstAsync() {
+            return DatabaseExecutor.supply(this::getFirst);
         }
 
         public LogEntry getLast() {
-            return Database.execute(definition.getBaseSelectSQL() + " WHERE end IS NOT NULL ORDER BY end DESC LIMIT 1", statement -> {
+            return StatementCache.query(definition.getBaseSelectSQL() + " WHERE end IS NOT NULL ORDER BY end DESC LIMIT 1", statement -> {
                 try (final ResultSet resultSet = statement.executeQuery()) {
                     return this.selectFirst(resultSet);
                 }
@@ -193,11 +361,91 @@ public final class LogEntry extends ModelObject<LogEntry> {
         }
 
         public LogEntry getFirst() {
-            return Database.execute(definition.getBaseSelectSQL() + " WHERE NOT end IS NULL ORDER BY end ASC LIMIT 1", statement -> {
+            return StatementCache.query(definition.getBaseSelectSQL() + " WHERE NOT end IS NULL ORDER BY end ASC LIMIT 1", statement -> {
                 try (final ResultSet resultSet = statement.executeQuery()) {
                     return this.selectFirst(resultSet);
                 }
             }, null);
         }
+
+        private static final class DayCache {
+            private final Map<LocalDate, List<Row>> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<LocalDate, List<Row>> eldest) {
+                    return size() > DAY_CACHE_CAPACITY;
+                }
+            };
+            private LocalTime startOfDay;
+            private long version, hits, misses;
+
+            private synchronized Lookup lookup(LocalDate date) {
+                final LocalTime currentStartOfDay = Preferences.getTime("StartOfDay");
+                if (!currentStartOfDay.equals(startOfDay)) {
+                    clear();
+                    startOfDay = currentStartOfDay;
+                }
+                final List<Row> bucket = buckets.get(date);
+                if (bucket != null) hits++;
+                else misses++;
+                return new Lookup(date, bucket, version);
+            }
+
+            private synchronized List<Row> put(Lookup lookup, List<Row> bucket) {
+                if (lookup.version == version) buckets.put(lookup.date, bucket);
+                return bucket;
+            }
+
+            private synchronized void invalidate(LogEntry entry) {
+                version++;
+                if (entry.getEnd() != null) buckets.remove(getDate(entry.getEnd()));
+                buckets.values().removeIf(bucket -> bucket.stream().anyMatch(cached -> cached.id == entry.getId()));
+            }
+
+            private synchronized void clear() {
+                version++;
+                buckets.clear();
+            }
+
+            private synchronized long getHits() {
+                return hits;
+            }
+
+            private synchronized long getMisses() {
+                return misses;
+            }
+
+            private static final class Lookup {
+                private final LocalDate date;
+                private final List<Row> bucket;
+                private final long version;
+
+                private Lookup(LocalDate date, List<Row> bucket, long version) {
+                    this.date = date;
+                    this.bucket = bucket;
+                    this.version = version;
+                }
+            }
+        }
+
+        private static final class Row {
+            private final int id, activity;
+            private final String what;
+            private final LocalDateTime start, end;
+            private final Integer transport;
+
+            private Row(ResultView view) throws SQLException {
+                id = view.getInt("id");
+                activity = view.getInt("activity");
+                what = view.getString("what");
+                start = view.getDateTime("start");
+                end = view.getDateTime("end");
+                transport = view.getOptionalInt("transport").orElse(null);
+            }
+
+            private LogEntry toLogEntry() {
+                return new LogEntry(id, Activity.FACTORY.getForId(activity), what, start, end,
+                        transport == null ? null : MeansOfTransport.FACTORY.getForId(transport));
+            }
+        }
     }
 }
@@ -0,0 +1,257 @@
+package de.julianpadawan.timelog.model;
+
+import de.julianpadawan.common.db.Database;
+import de.julianpadawan.common.db.ResultView;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class LogEntryColumns {
+    private static final String SELECT_FINISHED = "SELECT id, activity, what, start, end, transport FROM log"
+            + " WHERE end IS NOT NULL ORDER BY end";
+
+    private final int size, maxId;
+    private final int[] ids, activity, transport, what;
+    private final long[] start, end;
+    private final Dictionary dictionary;
+    private final Builder storage;
+
+    private LogEntryColumns(Builder storage) {
+        this.storage = storage;
+        this.size = storage.size;
+        this.maxId = storage.maxId;
+        this.ids = storage.ids;
+        this.start = storage.start;
+        this.end = storage.end;
+        this.activity = storage.activity;
+        this.transport = storage.transport;
+        this.what = storage.what;
+        this.dictionary = storage.dictionary;
+    }
+
+    static LogEntryColumns load() {
+        return Database.execute(SELECT_FINISHED, statement -> {
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                final ResultView view = new ResultView(resultSet);
+                final Builder builder = new Builder();
+                while (resultSet.next()) builder.add(
+                        view.getInt("id"),
+                        toMillis(view.getDateTime("start")),
+                        toMillis(view.getDateTime("end")),
+                        view.getInt("activity"),
+                        view.getOptionalInt("transport").orElse(0),
+                        view.getString("what"));
+                return builder.build();
+            }
+        }, new Builder().build());
+    }
+
+    public static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toDateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int index) {
+        return ids[checkIndex(index)];
+    }
+
+    public long getStart(int index) {
+        return start[checkIndex(index)];
+    }
+
+    public long getEnd(int index) {
+        return end[checkIndex(index)];
+    }
+
+    public long getMillis(int index) {
+        return end[checkIndex(index)] - start[index];
+    }
+
+    public int getActivityId(int index) {
+        return activity[checkIndex(index)];
+    }
+
+    public int getTransportId(int index) {
+        return transport[checkIndex(index)];
+    }
+
+    public String getWhat(int index) {
+        return dictionary.get(what[checkIndex(index)]);
+    }
+
+    public int indexOf(LocalDateTime time) {
+        return lowerBound(toMillis(time));
+    }
+
+    private int lowerBound(long millis) {
+        int low = 0, high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (end[middle] < millis) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return index;
+    }
+
+    LogEntryColumns with(LogEntry entry) {
+        final boolean known = entry.getId() <= maxId;
+        if (!known && entry.getEnd() == null) return this;
+        if (!known && storage.size == size && (size == 0 || toMillis(entry.getEnd()) >= end[size - 1])) {
+            storage.add(entry);
+            return storage.build();
+        }
+        // edits and out of order entries patch a copy, so readers of this snapshot keep a consistent view
+        final Builder patched = new Builder(this);
+        final int index = known ? indexOfId(entry.getId()) : -1;
+        if (index >= 0) patched.remove(index);
+        if (entry.getEnd() != null) patched.insert(entry);
+        return patched.build();
+    }
+
+    private int indexOfId(int id) {
+        for (int i = size - 1; i >= 0; i--) if (ids[i] == id) return i;
+        return -1;
+    }
+
+    private static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private synchronized int encode(String value) {
+            return codes.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        private synchronized String get(int code) {
+            return values.get(code);
+        }
+    }
+
+    private static final class Builder {
+        private final Dictionary dictionary;
+        private int size, maxId;
+        private int[] ids, activity, transport, what;
+        private long[] start, end;
+
+        private Builder() {
+            this(1024, new Dictionary());
+        }
+
+        private Builder(int capacity, Dictionary dictionary) {
+            this.dictionary = dictionary;
+            capacity = Math.max(capacity, 16);
+            ids = new int[capacity];
+            start = new long[capacity];
+            end = new long[capacity];
+            activity = new int[capacity];
+            transport = new int[capacity];
+            what = new int[capacity];
+        }
+
+        private Builder(LogEntryColumns columns) {
+            this.dictionary = columns.dictionary;
+            this.size = columns.size;
+            this.maxId = columns.maxId;
+            final int capacity = Math.max(columns.size + 1, 16);
+            ids = Arrays.copyOf(columns.ids, capacity);
+            start = Arrays.copyOf(columns.start, capacity);
+            end = Arrays.copyOf(columns.end, capacity);
+            activity = Arrays.copyOf(columns.activity, capacity);
+            transport = Arrays.copyOf(columns.transport, capacity);
+            what = Arrays.copyOf(columns.what, capacity);
+        }
+
+        private void add(LogEntry entry) {
+            add(entry.getId(), toMillis(entry.getStart()), toMillis(entry.getEnd()), entry.getActivity().getId(),
+                    entry.getMeansOfTransport() == null ? 0 : entry.getMeansOfTransport().getId(),
+                    entry.getWhat());
+        }
+
+        private void insert(LogEntry entry) {
+            final long millis = toMillis(entry.getEnd());
+            int low = 0, high = size;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (end[middle] <= millis) low = middle + 1;
+                else high = middle;
+            }
+            if (size == ids.length) grow();
+            move(low, low + 1, size - low);
+            size++;
+            set(low, entry.getId(), toMillis(entry.getStart()), millis, entry.getActivity().getId(),
+                    entry.getMeansOfTransport() == null ? 0 : entry.getMeansOfTransport().getId(),
+                    dictionary.encode(entry.getWhat()));
+        }
+
+        private void remove(int index) {
+            move(index + 1, index, size - index - 1);
+            size--;
+        }
+
+        private void move(int from, int to, int length) {
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(start, from, start, to, length);
+            System.arraycopy(end, from, end, to, length);
+            System.arraycopy(activity, from, activity, to, length);
+            System.arraycopy(transport, from, transport, to, length);
+            System.arraycopy(what, from, what, to, length);
+        }
+
+        private void add(int id, long start, long end, int activity, int transport, String what) {
+            add(id, start, end, activity, transport, dictionary.encode(what));
+        }
+
+        private void add(int id, long start, long end, int activity, int transport, int what) {
+            if (size == ids.length) grow();
+            set(size++, id, start, end, activity, transport, what);
+        }
+
+        private void set(int index, int id, long start, long end, int activity, int transport, int what) {
+            this.ids[index] = id;
+            this.start[index] = start;
+            this.end[index] = end;
+            this.activity[index] = activity;
+            this.transport[index] = transport;
+            this.what[index] = what;
+            maxId = Math.max(maxId, id);
+        }
+
+        private void grow() {
+            final int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            activity = Arrays.copyOf(activity, capacity);
+            transport = Arrays.copyOf(transport, capacity);
+            what = Arrays.copyOf(what, capacity);
+        }
+
+        private LogEntryColumns build() {
+            return new LogEntryColumns(this);
+        }
+    }
+}
@@ -8,7 +8,8 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ObservableStringValue;
 
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class MeansOfTransport extends ModelObject<MeansOfTransport> {
     public static final MeansOfTransportFactory FACTORY = new MeansOfTransportFactory();
@@ -51,6 +52,9 @@ public final class MeansOfTransport extends ModelObject<MeansOfTransport> {
     }
 
     public static final class MeansOfTransportFactory extends ModelFactory<MeansOfTransport> {
+        private final Map<Integer, MeansOfTransport> transportMap = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+
         private MeansOfTransportFactory() {
             super(view -> new MeansOfTransport(
                             view.getInt("id"),
@@ -60,5 +64,54 @@ public final class MeansOfTransport extends ModelObject<MeansOfTransport> {
                             .withColumn("name", ColumnType.STRING, MeansOfTransport::getName)
             );
         }
+
+        @Override
+        public Collection<MeansOfTransport> getAll() {
+            if (!loaded) {
+                super.getAll().forEach(this::putTransport);
+                loaded = true;
+            }
+            return transportMap.values();
+        }
+
+        @Override
+        public MeansOfTransport getForId(int id) {
+            if (!transportMap.containsKey(id)) {
+                final MeansOfTransport transport = super.getForId(id);
+                if (transport != null) putTransport(transport);
+            }
+            return transportMap.get(id);
+        }
+
+        @Override
+        public MeansOfTransport createNew(Object... params) {
+            final MeansOfTransport transport = super.createNew(params);
+            putTransport(transport);
+            return transport;
+        }
+
+        @Override
+        public boolean update(MeansOfTransport obj) {
+            transportMap.put(obj.getId(), obj);
+            return super.update(obj);
+        }
+
+        public void prefetch(Collection<Integer> ids) {
+            final List<Integer> missing = new ArrayList<>();
+            for (Integer id : ids) if (!transportMap.containsKey(id)) missing.add(id);
+            if (missing.isEmpty()) return;
+            if (missing.size() > SqlUtil.MAX_PARAMETERS) getAll();
+            else selectWhere(this::selectAll, SqlUtil.in("id", missing.size()), missing.size(),
+                    (statement, param) -> statement.setInt(param, missing.get(param - 1))).forEach(this::putTransport);
+        }
+
+        private void putTransport(MeansOfTransport transport) {
+            transportMap.putIfAbsent(transport.getId(), transport);
+        }
+
+        public void clearCache() {
+            transportMap.clear();
+            loaded = false;
+        }
     }
 }
@@ -4,6 +4,14 @@ import de.julianpadawan.common.db.Association;
 import de.julianpadawan.common.db.AssociationFactory;
 import de.julianpadawan.common.db.AssociationTableDefinition;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
 public final class QualityTime extends Association<LogEntry, Person> {
     public static final QualityTimeFactory FACTORY = new QualityTimeFactory();
 
@@ -12,11 +20,98 @@ public final class QualityTime extends Association<LogEntry, Person> {
     }
 
     public static final class QualityTimeFactory extends AssociationFactory<LogEntry, Person, QualityTime> {
+        private static final String SELECT_PERSONS = "SELECT qualityTime.logEntry, qualityTime.person FROM qualityTime"
+                + " JOIN log ON log.id = qualityTime.logEntry WHERE ";
 
         private QualityTimeFactory() {
             super(QualityTime::new, Person.FACTORY, new AssociationTableDefinition<>("qualityTime",
                     "logEntry", LogEntry.class, "person", Person.class)
             );
         }
+
+        public Map<Integer, List<Person>> getAllPersonsFinishedBetween(LocalDateTime from, LocalDateTime to) {
+            return selectPersons("log.end >= ? AND log.end < ?", statement -> {
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+            });
+        }
+
+        public CompletableFuture<Map<Integer, List<Person>>> getAllPersonsFinishedBetweenAsync(LocalDateTime from, LocalDateTime to) {
+            return DatabaseExecutor.supply(() -> getAllPersonsFinishedBetween(from, to));
+        }
+
+        public CompletableFuture<Map<LogEntry, List<Person>>> getAllPersonsAsync(Collection<LogEntry> entries) {
+            return DatabaseExecutor.supply(() -> getAllPersons(entries));
+        }
+
+        public Map<LogEntry, List<Person>> getAllPersons(Collection<LogEntry> entries) {
+            final Map<Integer, LogEntry> entryMap = new HashMap<>();
+            LocalDateTime first = null, last = null;
+            boolean finished = true;
+            for (LogEntry entry : entries) {
+                entryMap.put(entry.getId(), entry);
+                if (entry.getEnd() == null) finished = false;
+                else {
+                    if (first == null || entry.getEnd().isBefore(first)) first = entry.getEnd();
+                    if (last == null || entry.getEnd().isAfter(last)) last = entry.getEnd();
+                }
+            }
+            if (entryMap.isEmpty()) return Collections.emptyMap();
+
+            final Map<Integer, List<Person>> persons = new HashMap<>();
+            if (finished) {
+                final LocalDateTime from = first, to = last;
+                persons.putAll(selectPersons("log.end >= ? AND log.end <= ?", statement -> {
+                    statement.setTimestamp(1, Timestamp.valueOf(from));
+                    statement.setTimestamp(2, Timestamp.valueOf(to));
+                }));
+            } else {
+                final List<Integer> ids = new ArrayList<>(entryMap.keySet());
+                for (int offset = 0; offset < ids.size(); offset += SqlUtil.MAX_PARAMETERS) {
+                    final List<Integer> chunk = ids.subList(offset, Math.min(ids.size(), offset + SqlUtil.MAX_PARAMETERS));
+                    persons.putAll(selectPersons(SqlUtil.in("log.id", chunk.size()), statement -> {
+                        for (int i = 0; i < chunk.size(); i++) statement.setInt(i + 1, chunk.get(i));
+                    }));
+                }
+            }
+
+            final Map<LogEntry, List<Person>> result = new HashMap<>();
+            persons.forEach((id, list) -> {
+                if (entryMap.containsKey(id)) result.put(entryMap.get(id), list);
+            });
+            return result;
+        }
+
+        public Set<Integer> getAllLogEntryIds(Person person) {
+            return StatementCache.query("SELECT logEntry FROM qualityTime WHERE person = ?", statement -> {
+                statement.setInt(1, person.getId());
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final Set<Integer> result = new HashSet<>();
+                    while (resultSet.next()) result.add(resultSet.getInt(1));
+                    return result;
+                }
+            }, Collections.emptySet());
+        }
+
+        private Map<Integer, List<Person>> selectPersons(String where, ParameterSetter parameters) {
+            final Map<Integer, Person> personMap = new HashMap<>();
+            Person.FACTORY.getAll().forEach(person -> personMap.put(person.getId(), person));
+            return StatementCache.query(SELECT_PERSONS + where, statement -> {
+                parameters.set(statement);
+                try (final ResultSet resultSet = statement.executeQuery()) {
+                    final Map<Integer, List<Person>> result = new HashMap<>();
+                    while (resultSet.next()) {
+                        final Person person = personMap.get(resultSet.getInt(2));
+                        if (person != null)
+                            result.computeIfAbsent(resultSet.getInt(1), id -> new ArrayList<>()).add(person);
+                    }
+                    return result;
+                }
+            }, Collections.emptyMap());
+        }
+
+        private interface ParameterSetter {
+            void set(PreparedStatement statement) throws SQLException;
+        }
     }
 }
@@ -0,0 +1,146 @@
+package de.julianpadawan.timelog.model;
+
+import de.julianpadawan.timelog.preferences.Preferences;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+public final class QueryStatistics {
+    private static final Logger LOGGER = Logger.getLogger(QueryStatistics.class.getName());
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final int BUCKETS = 40, MAX_NORMALIZED = 1024;
+
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>();
+    private static final Map<String, String> NORMALIZED = new ConcurrentHashMap<>();
+
+    private QueryStatistics() {
+    }
+
+    static void record(String sql, String thread, boolean fxThread, long nanos, long rows, Object parameters) {
+        if (sql == null) return;
+        String template = NORMALIZED.get(sql);
+        if (template == null) {
+            template = normalize(sql);
+            // variable length IN lists produce new raw strings forever, so only a bounded number are remembered
+            if (NORMALIZED.size() < MAX_NORMALIZED) NORMALIZED.put(sql, template);
+        }
+        TEMPLATES.computeIfAbsent(template, Template::new).add(DIGITS.matcher(thread).replaceAll("#"), fxThread, nanos, rows);
+        final long millis = nanos / 1_000_000;
+        if (millis >= Preferences.getInt("SlowQueryMillis"))
+            LOGGER.warning(String.format("slow query (%d ms, %d rows, %s%s): %s %s", millis, rows, thread,
+                    fxThread ? ", FX thread" : "", template, parameters));
+    }
+
+    private static String normalize(String sql) {
+        return PARAMETER_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("?, ...");
+    }
+
+    public static List<Template> getTemplates() {
+        final List<Template> templates = new ArrayList<>(TEMPLATES.values());
+        templates.sort(Comparator.comparingLong(Template::getTotalNanos).reversed());
+        return templates;
+    }
+
+    public static void reset() {
+        TEMPLATES.clear();
+        NORMALIZED.clear();
+    }
+
+    public static String report() {
+        final StringBuilder report = new StringBuilder();
+        for (Template template : getTemplates()) {
+            report.append(String.format("%s%n", template.getSql()));
+            report.append(String.format("    calls %d (FX thread %d), rows %d, total %.1f ms%n",
+                    template.getCalls(), template.getFxCalls(), template.getRows(), template.getTotalNanos() / 1e6));
+            report.append(String.format("    mean %.2f ms, p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    template.getTotalNanos() / 1e6 / Math.max(1, template.getCalls()), template.getPercentile(.5) / 1e6,
+                    template.getPercentile(.95) / 1e6, template.getPercentile(.99) / 1e6, template.getMaxNanos() / 1e6));
+            report.append(String.format("    threads %s%n", template.getThreads()));
+        }
+        return report.toString();
+    }
+
+    public static void dump(Path file) throws IOException {
+        if (!TEMPLATES.isEmpty()) Files.writeString(file, report(), StandardCharsets.UTF_8);
+    }
+
+    public static final class Template {
+        private final String sql;
+        private final LongAdder calls = new LongAdder(), fxCalls = new LongAdder(), rows = new LongAdder(),
+                totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final Map<String, LongAdder> threads = new ConcurrentHashMap<>();
+
+        private Template(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(String thread, boolean fxThread, long nanos, long rows) {
+            calls.increment();
+            if (fxThread) fxCalls.increment();
+            this.rows.add(rows);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(bucket(nanos));
+            threads.computeIfAbsent(thread, key -> new LongAdder()).increment();
+        }
+
+        private static int bucket(long nanos) {
+            return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos / 1000));
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getFxCalls() {
+            return fxCalls.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += histogram.get(i);
+            final long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram.get(i);
+                if (seen >= rank && seen > 0) return Math.min(getMaxNanos(), (1L << i) * 1000);
+            }
+            return 0;
+        }
+
+        public Map<String, Long> getThreads() {
+            final Map<String, Long> result = new TreeMap<>();
+            threads.forEach((thread, count) -> result.put(thread, count.sum()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package de.julianpadawan.timelog.model;
+
+import java.util.Collections;
+
+final class SqlUtil {
+    static final int MAX_PARAMETERS = 500;
+
+    private SqlUtil() {
+    }
+
+    static String in(String column, int parameters) {
+        return column + " IN (" + String.join(", ", Collections.nCopies(parameters, "?")) + ")";
+    }
+}
@@ -0,0 +1,172 @@
+package de.julianpadawan.timelog.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.*;
+
+public final class StartupSnapshot {
+    public static final Path FILE = Paths.get("timelog.snapshot");
+
+    private static final int MAGIC = 0x544C5331;
+    private static final int VERSION = 1;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final LocalDateTime firstEnd, lastEnd;
+    private final Map<Integer, StreakState> streaks;
+
+    private StartupSnapshot(LocalDateTime firstEnd, LocalDateTime lastEnd, Map<Integer, StreakState> streaks) {
+        this.firstEnd = firstEnd;
+        this.lastEnd = lastEnd;
+        this.streaks = streaks;
+    }
+
+    public static Optional<StartupSnapshot> load(String databaseURL) {
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(FILE));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return Optional.empty();
+            if (!databaseURL.equals(readString(buffer))) return Optional.empty();
+            final long generation = buffer.getLong(), lastId = buffer.getLong();
+            if (!Arrays.equals(new long[]{generation, lastId}, queryGeneration())) return Optional.empty();
+
+            final LocalDateTime firstEnd = readTime(buffer), lastEnd = readTime(buffer);
+            final int activities = buffer.getInt();
+            Activity.FACTORY.clearCache();
+            for (int i = 0; i < activities; i++)
+                Activity.FACTORY.restore(buffer.getInt(), buffer.getInt(), readString(buffer), readString(buffer), buffer.getDouble());
+            Activity.FACTORY.restored();
+
+            final int streakCount = buffer.getInt();
+            final Map<Integer, StreakState> streaks = new HashMap<>(streakCount);
+            for (int i = 0; i < streakCount; i++)
+                streaks.put(buffer.getInt(), new StreakState(readString(buffer), readString(buffer), buffer.get() != 0));
+            return Optional.of(new StartupSnapshot(firstEnd, lastEnd, streaks));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            Activity.FACTORY.clearCache();
+            return Optional.empty();
+        }
+    }
+
+    public static void write(String databaseURL, Map<Integer, StreakState> streaks) throws IOException {
+        final long[] generation = queryGeneration();
+        if (generation == null) return;
+        final LogEntry first = LogEntry.FACTORY.getFirst(), last = LogEntry.FACTORY.getLast();
+        final Collection<Activity> activities = Activity.FACTORY.getAll();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, databaseURL);
+        out.writeLong(generation[0]);
+        out.writeLong(generation[1]);
+        writeTime(out, first == null ? null : first.getEnd());
+        writeTime(out, last == null ? null : last.getEnd());
+        out.writeInt(activities.size());
+        for (Activity activity : activities) {
+            out.writeInt(activity.getId());
+            out.writeInt(activity.getId() == 0 ? 0 : activity.getParent().getId());
+            writeString(out, activity.getName());
+            writeString(out, activity.getColor());
+            out.writeDouble(activity.getPointsPerMinute());
+        }
+        out.writeInt(streaks.size());
+        for (Map.Entry<Integer, StreakState> entry : streaks.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeString(out, entry.getValue().streak);
+            writeString(out, entry.getValue().progress);
+            out.writeByte(entry.getValue().complete ? 1 : 0);
+        }
+        out.flush();
+
+        final Path temporary = Files.createTempFile(FILE.toAbsolutePath().getParent(), "timelog", ".snapshot");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long[] queryGeneration() {
+        return StatementCache.query("SELECT (SELECT generation FROM dataGeneration),"
+                + " (SELECT coalesce(max(id), 0) FROM log)", statement -> {
+            try (final ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? new long[]{resultSet.getLong(1), resultSet.getLong(2)} : null;
+            }
+        }, null);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) return null;
+        if (length > buffer.remaining()) throw new BufferUnderflowException();
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time == null ? NONE : LogEntryColumns.toSeconds(time));
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        final long seconds = buffer.getLong();
+        return seconds == NONE ? null : LogEntryColumns.toDateTime(seconds);
+    }
+
+    public LocalDateTime getFirstEnd() {
+        return firstEnd;
+    }
+
+    public LocalDateTime getLastEnd() {
+        return lastEnd;
+    }
+
+    public Optional<StreakState> getStreakState(int goalId) {
+        return Optional.ofNullable(streaks.get(goalId));
+    }
+
+    public static final class StreakState {
+        private final String streak, progress;
+        private final boolean complete;
+
+        public StreakState(String streak, String progress, boolean complete) {
+            this.streak = streak;
+            this.progress = progress;
+            this.complete = complete;
+        }
+
+        public String getStreak() {
+            return streak;
+        }
+
+        public String getProgress() {
+            return progress;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
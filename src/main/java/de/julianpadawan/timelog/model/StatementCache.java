@@ -0,0 +1,200 @@
+package de.julianpadawan.timelog.model;
+
+import de.julianpadawan.common.db.Database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+    private static final int CAPACITY = 64, MAX_IDLE = 4, MAX_OPEN = 4, BUSY_TIMEOUT_MILLIS = 5000;
+
+    private static final Deque<Session> IDLE = new ArrayDeque<>();
+    private static final Set<Session> OPEN = new HashSet<>();
+    private static final LongAdder HITS = new LongAdder(), MISSES = new LongAdder();
+
+    private static String url, username, password;
+    private static int generation, connecting;
+    private static BiConsumer<String, Exception> errorHandler =
+            (title, exception) -> LOGGER.log(Level.WARNING, title, exception);
+
+    private StatementCache() {
+    }
+
+    public static synchronized void init(String url, String username, String password) {
+        close();
+        StatementCache.url = url;
+        StatementCache.username = username;
+        StatementCache.password = password;
+    }
+
+    public static synchronized void setErrorHandler(BiConsumer<String, Exception> errorHandler) {
+        StatementCache.errorHandler = Objects.requireNonNull(errorHandler);
+    }
+
+    public static synchronized void close() {
+        generation++;
+        IDLE.forEach(Session::close);
+        OPEN.removeAll(IDLE);
+        IDLE.clear();
+    }
+
+    public static <T> T query(String sql, Query<T> query, T defaultValue) {
+        final Session session = borrow();
+        final PreparedStatement statement;
+        try {
+            statement = session == null ? null : session.prepare(sql);
+        } catch (SQLException e) {
+            discard(session);
+            return Database.execute(sql, query::run, defaultValue);
+        }
+        if (statement == null) return Database.execute(sql, query::run, defaultValue);
+
+        boolean reusable = false;
+        try {
+            final T result = query.run(statement);
+            statement.clearParameters();
+            reusable = true;
+            return result;
+        } catch (SQLException e) {
+            reportError(e);
+            return defaultValue;
+        } finally {
+            if (reusable) release(session);
+            else discard(session);
+        }
+    }
+
+    private static Session borrow() {
+        final String url, username, password;
+        final int generation;
+        synchronized (StatementCache.class) {
+            if (StatementCache.url == null) return null;
+            final Session idle = IDLE.poll();
+            if (idle != null) return idle;
+            // beyond the cap the query shares the application's pool instead of opening another file handle
+            if (OPEN.size() + connecting >= MAX_OPEN) return null;
+            connecting++;
+            url = StatementCache.url;
+            username = StatementCache.username;
+            password = StatementCache.password;
+            generation = StatementCache.generation;
+        }
+        Session session = null;
+        try {
+            session = new Session(url, username, password, generation);
+            return session;
+        } catch (SQLException e) {
+            return null;
+        } finally {
+            synchronized (StatementCache.class) {
+                connecting--;
+                if (session != null) OPEN.add(session);
+            }
+        }
+    }
+
+    private static void release(Session session) {
+        synchronized (StatementCache.class) {
+            if (session.generation == generation && IDLE.size() < MAX_IDLE) {
+                IDLE.push(session);
+                return;
+            }
+            OPEN.remove(session);
+        }
+        session.close();
+    }
+
+    private static void discard(Session session) {
+        if (session == null) return;
+        synchronized (StatementCache.class) {
+            OPEN.remove(session);
+        }
+        session.close();
+    }
+
+    private static void reportError(SQLException exception) {
+        final BiConsumer<String, Exception> handler;
+        synchronized (StatementCache.class) {
+            handler = errorHandler;
+        }
+        handler.accept("Database Query", exception);
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    public static synchronized int getOpenConnections() {
+        return OPEN.size();
+    }
+
+    public interface Query<T> {
+        T run(PreparedStatement statement) throws SQLException;
+    }
+
+    private static final class Session {
+        private final Connection connection;
+        private final int generation;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(CAPACITY, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= CAPACITY) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+
+        private Session(String url, String username, String password, int generation) throws SQLException {
+            this.connection = DriverManager.getConnection(url, username, password);
+            this.generation = generation;
+            if (url.contains(":sqlite:") && !url.contains("busy_timeout="))
+                try (final Statement statement = connection.createStatement()) {
+                    statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+                } catch (SQLException e) {
+                    close();
+                    throw e;
+                }
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement != null) {
+                HITS.increment();
+                return statement;
+            }
+            MISSES.increment();
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+            return statement;
+        }
+
+        private void close() {
+            statements.values().forEach(StatementCache::closeQuietly);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
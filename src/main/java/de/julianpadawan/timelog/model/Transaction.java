@@ -0,0 +1,37 @@
+package de.julianpadawan.timelog.model;
+
+import de.julianpadawan.common.db.Database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public final class Transaction {
+    private Transaction() {
+    }
+
+    public static <T> T run(Body<T> body, T defaultValue) {
+        return Database.execute("BEGIN IMMEDIATE", begin -> {
+            begin.execute();
+            final Connection connection = begin.getConnection();
+            try {
+                final T result = body.run(connection);
+                execute(connection, "COMMIT");
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                execute(connection, "ROLLBACK");
+                throw e;
+            }
+        }, defaultValue);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    public interface Body<T> {
+        T run(Connection connection) throws SQLException;
+    }
+}
@@ -2,23 +2,54 @@ package de.julianpadawan.timelog.view;
 
 import de.julianpadawan.common.customFX.ErrorAlert;
 import de.julianpadawan.common.db.Database;
+import de.julianpadawan.timelog.io.HistoryGenerator;
+import de.julianpadawan.timelog.jfr.Recorder;
 import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.DatabaseExecutor;
+import de.julianpadawan.timelog.model.DayRollup;
+import de.julianpadawan.timelog.model.InstrumentedDriver;
+import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.MeansOfTransport;
+import de.julianpadawan.timelog.model.QueryStatistics;
+import de.julianpadawan.timelog.model.StartupSnapshot;
+import de.julianpadawan.timelog.model.StatementCache;
 import de.julianpadawan.timelog.preferences.Preferences;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.Region;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 public class App extends Application {
     private static final int APPLICATION_ID = 0x74696d6;
-    private static final int CURRENT_DATABASE_VERSION = 2;
+    private static final int CURRENT_DATABASE_VERSION = 5;
+    private static final String DEMO_DATABASE = "timelog-demo.sqlite";
+    private static final int DEMO_DAYS = 730;
+    private static final int DEMO_SLEEP_ID = 1;
+    private static final String DIAGNOSTICS_FILE = "timelog-diagnostics.txt";
+    private static final int SHUTDOWN_SECONDS = 5;
     private static Stage stage;
+    private static String databaseURL;
+    private static String userSleepId;
+    private static StartupSnapshot snapshot;
 
     public static void main(String[] args) {
         launch(args);
@@ -26,6 +57,8 @@ public class App extends Application {
 
     static void restart(boolean skipLogin) {
         Activity.FACTORY.clearCache();
+        MeansOfTransport.FACTORY.clearCache();
+        LogEntry.FACTORY.clearCache();
         showLoginScene(stage, skipLogin);
     }
 
@@ -44,6 +77,20 @@ public class App extends Application {
         showScene(stage, new MainScene());
     }
 
+    static Optional<StartupSnapshot> takeSnapshot() {
+        final Optional<StartupSnapshot> taken = Optional.ofNullable(snapshot);
+        snapshot = null;
+        return taken;
+    }
+
+    public static void showError(String title, Throwable exception) {
+        final Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause() : exception;
+        final Exception shown = cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+        if (Platform.isFxApplicationThread()) ErrorAlert.show(title, shown);
+        else Platform.runLater(() -> ErrorAlert.show(title, shown));
+    }
+
     public static String formatDuration(Duration duration, final boolean allowShortening) {
         if (duration.equals(Duration.ZERO)) return "";
         final long minutes = Math.floorDiv(duration.getSeconds(), 60) % 60;
@@ -54,7 +101,103 @@ public class App extends Application {
     }
 
     static boolean initDatabase(final String url, final String username, final String password) throws IOException {
-        Database.init(url, username, password);
+        useDemoPreferences(false);
+        Database.init(InstrumentedDriver.wrap(url), username, password);
+        StatementCache.init(InstrumentedDriver.wrap(url), username, password);
+        return checkDatabase() && opened(url);
+    }
+
+    static void initDemoDatabase(Runnable onReady) throws IOException {
+        final String url = "jdbc:sqlite:" + DEMO_DATABASE;
+        // a demo file without the application id is left over from a cancelled or failed generation
+        if (Files.exists(Paths.get(DEMO_DATABASE)) && !isCompleteDemoDatabase(url))
+            Files.delete(Paths.get(DEMO_DATABASE));
+        Database.init(InstrumentedDriver.wrap(url), "", "");
+        StatementCache.init(InstrumentedDriver.wrap(url), "", "");
+        useDemoPreferences(true);
+        if (Database.queryPragma("application_id") != 0) {
+            if (checkDatabase() && opened(url)) onReady.run();
+            return;
+        }
+        createSchema();
+        Database.setPragma("application_id", 0);
+
+        final Task<HistoryGenerator.Result> task = new Task<>() {
+            @Override
+            protected HistoryGenerator.Result call() throws Exception {
+                final HistoryGenerator.Result result = new HistoryGenerator(HistoryGenerator.DEFAULT_SEED)
+                        .sleepActivity(DEMO_SLEEP_ID)
+                        .generateDays(LogEntry.today().minusDays(DEMO_DAYS), DEMO_DAYS, this::updateProgress);
+                if (!isCancelled()) Database.setPragma("application_id", APPLICATION_ID);
+                return result;
+            }
+        };
+        final ProgressBar progressBar = new ProgressBar();
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.progressProperty().bind(task.progressProperty());
+        final Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.initOwner(stage);
+        alert.setTitle("Demo Database");
+        alert.setHeaderText("Generating " + DEMO_DAYS + " days of history");
+        alert.getDialogPane().setContent(progressBar);
+        alert.getButtonTypes().setAll(ButtonType.CANCEL);
+        alert.setOnHidden(event -> task.cancel(true));
+
+        task.setOnSucceeded(event -> {
+            alert.close();
+            if (opened(url)) onReady.run();
+        });
+        task.setOnFailed(event -> {
+            alert.close();
+            showError("Demo Database", task.getException());
+        });
+
+        final Thread thread = new Thread(task, "Demo Database");
+        thread.setDaemon(true);
+        thread.start();
+        alert.show();
+    }
+
+    private static boolean isCompleteDemoDatabase(String url) throws IOException {
+        try (final Connection connection = DriverManager.getConnection(url);
+             final Statement statement = connection.createStatement();
+             final ResultSet resultSet = statement.executeQuery("PRAGMA application_id")) {
+            return resultSet.next() && resultSet.getInt(1) == APPLICATION_ID;
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void useDemoPreferences(boolean demo) {
+        if (demo && userSleepId == null) {
+            userSleepId = Preferences.get("SleepID");
+            Preferences.set("SleepID", DEMO_SLEEP_ID);
+        } else if (!demo && userSleepId != null) {
+            Preferences.set("SleepID", userSleepId);
+            userSleepId = null;
+        }
+    }
+
+    private static boolean opened(String url) {
+        DayRollup.ensureStartOfDay(Preferences.getTime("StartOfDay")).whenComplete((available, exception) -> {
+            if (exception != null) showError("Day Rollup", exception);
+        });
+        databaseURL = url;
+        snapshot = StartupSnapshot.load(url).orElse(null);
+        return true;
+    }
+
+    public static void initHeadless() throws IOException {
+        setDefaultPreferences();
+        Preferences.loadPropertiesFile(Preferences.FILE_NAME);
+        Database.setErrorHandler((title, exception) -> System.err.println(title + ": " + exception.getMessage()));
+        Database.init(LoginScene.getDatabaseURL(), Preferences.get("DatabaseUsername"), Preferences.get("DatabasePassword"));
+        if (Database.queryPragma("application_id") != APPLICATION_ID
+                || Database.queryPragma("user_version") != CURRENT_DATABASE_VERSION)
+            throw new IOException("Database has to be created or updated by the application first");
+    }
+
+    private static boolean checkDatabase() throws IOException {
         final int application_id = Database.queryPragma("application_id");
         if (application_id == 0) return createDatabase();
         else if (application_id != APPLICATION_ID)
@@ -66,20 +209,28 @@ public class App extends Application {
     private static boolean createDatabase() throws IOException {
         final boolean ok = new Alert(Alert.AlertType.CONFIRMATION, "Database needs to be created. Proceed?")
                 .showAndWait().filter(buttonType -> buttonType.equals(ButtonType.OK)).isPresent();
-        if (ok) {
-            Database.execFile("db/1.sql");
-            Database.execFile("db/2.sql");
-            Database.setPragma("application_id", APPLICATION_ID);
-            Database.setPragma("user_version", CURRENT_DATABASE_VERSION);
-        }
+        if (ok) createSchema();
         return ok;
     }
 
+    private static void createSchema() throws IOException {
+        Database.execFile("db/1.sql");
+        Database.execFile("db/2.sql");
+        Database.execFile("db/3.sql");
+        Database.execFile("db/4.sql");
+        Database.execFile("db/5.sql");
+        Database.setPragma("application_id", APPLICATION_ID);
+        Database.setPragma("user_version", CURRENT_DATABASE_VERSION);
+    }
+
     private static boolean updateDatabase() throws IOException {
         final boolean ok = new Alert(Alert.AlertType.CONFIRMATION, "Database needs to be updated. Proceed?")
                 .showAndWait().filter(buttonType -> buttonType.equals(ButtonType.OK)).isPresent();
         if (ok) {
             if (Database.queryPragma("user_version") == 1) Database.execFile("db/2.sql");
+            if (Database.queryPragma("user_version") == 2) Database.execFile("db/3.sql");
+            if (Database.queryPragma("user_version") == 3) Database.execFile("db/4.sql");
+            if (Database.queryPragma("user_version") == 4) Database.execFile("db/5.sql");
         }
         return ok;
     }
@@ -96,12 +247,14 @@ public class App extends Application {
     public void init() throws IOException {
         setDefaultPreferences();
         Preferences.loadPropertiesFile(Preferences.FILE_NAME);
-        Database.setErrorHandler(ErrorAlert::show);
+        Database.setErrorHandler(App::showError);
+        StatementCache.setErrorHandler(App::showError);
     }
 
-    private void setDefaultPreferences() {
+    private static void setDefaultPreferences() {
         Preferences.set("DatabaseDriver", "SQLite");
         Preferences.set("DatabaseURL", "timelog.sqlite");
+        Preferences.set("DatabaseStorageProfile", "Default");
         Preferences.set("DatabaseUsername", "");
         Preferences.set("DatabasePassword", "");
         Preferences.set("AutomaticLogin", false);
@@ -127,10 +280,28 @@ public class App extends Application {
         Preferences.set("ShowDailyAveragesInReport", true);
         Preferences.set("FlattenActivityStatistic", true);
         Preferences.set("ActivityStatisticDefaultDepth", 2);
+        Preferences.set("ParallelStatistics", false);
+
+        Preferences.set("CursorFetchSize", 500);
+        Preferences.set("SlowQueryMillis", 100);
     }
 
     @Override
     public void stop() throws IOException {
+        useDemoPreferences(false);
         Preferences.savePropertiesFile(Preferences.FILE_NAME);
+        try {
+            if (stage.getScene() instanceof MainScene)
+                StartupSnapshot.write(databaseURL, ((MainScene) stage.getScene()).getStreakStates());
+        } finally {
+            try {
+                DatabaseExecutor.shutdown(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StatementCache.close();
+            if (Recorder.isRecording()) Recorder.stop();
+            QueryStatistics.dump(Paths.get(DIAGNOSTICS_FILE));
+        }
     }
 }
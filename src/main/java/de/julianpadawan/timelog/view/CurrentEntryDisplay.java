@@ -8,6 +8,7 @@ import de.julianpadawan.timelog.model.LogEntry;
 import de.julianpadawan.timelog.model.MeansOfTransport;
 import de.julianpadawan.timelog.preferences.Preferences;
 import de.julianpadawan.timelog.view.edit.LogEntryDialog;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -82,7 +83,12 @@ public class CurrentEntryDisplay extends GridPane {
         super();
         this.newCompleteEntryCallback = newCompleteEntryCallback;
 
-        entry.setValue(LogEntry.FACTORY.getUnfinishedEntry());
+        setDisable(true);
+        LogEntry.FACTORY.getUnfinishedEntryAsync().whenCompleteAsync((unfinished, exception) -> {
+            if (exception != null) App.showError("Current Entry", exception);
+            else entry.setValue(unfinished);
+            setDisable(false);
+        }, Platform::runLater);
         button.setOnAction(this::onButtonPress);
         setOnMouseClicked(this::doubleClick);
 
@@ -0,0 +1,51 @@
+package de.julianpadawan.timelog.view;
+
+import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.QueryStatistics;
+import de.julianpadawan.timelog.model.StatementCache;
+import javafx.event.ActionEvent;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.TextArea;
+import javafx.scene.text.Font;
+
+public class DiagnosticsDialog extends Alert {
+    private static final ButtonType REFRESH_BUTTON = new ButtonType("Refresh", ButtonBar.ButtonData.LEFT);
+    private static final ButtonType RESET_BUTTON = new ButtonType("Reset", ButtonBar.ButtonData.LEFT);
+
+    private final TextArea text = new TextArea();
+
+    public DiagnosticsDialog() {
+        super(AlertType.INFORMATION);
+        setTitle("Diagnostics");
+        setHeaderText("Database Queries");
+
+        text.setEditable(false);
+        text.setFont(Font.font("Monospaced", 12));
+        text.setPrefColumnCount(100);
+        text.setPrefRowCount(30);
+        getDialogPane().setContent(text);
+        getDialogPane().getButtonTypes().setAll(REFRESH_BUTTON, RESET_BUTTON, ButtonType.CLOSE);
+        setResizable(true);
+
+        getDialogPane().lookupButton(REFRESH_BUTTON).addEventFilter(ActionEvent.ACTION, event -> {
+            event.consume();
+            refresh();
+        });
+        getDialogPane().lookupButton(RESET_BUTTON).addEventFilter(ActionEvent.ACTION, event -> {
+            event.consume();
+            QueryStatistics.reset();
+            refresh();
+        });
+        refresh();
+    }
+
+    private void refresh() {
+        text.setText(String.format("first frame: %s%nstatement cache: %d hits, %d misses, %d connections%nday cache: %d hits, %d misses%n%n%s",
+                MainScene.getTimeToFirstFrame().map(duration -> duration.toMillis() + " ms").orElse("-"),
+                StatementCache.getHits(), StatementCache.getMisses(), StatementCache.getOpenConnections(),
+                LogEntry.FACTORY.getDayCacheHits(), LogEntry.FACTORY.getDayCacheMisses(),
+                QueryStatistics.report()));
+    }
+}
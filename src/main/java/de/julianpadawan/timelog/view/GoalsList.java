@@ -7,8 +7,11 @@ import de.julianpadawan.timelog.insight.StreakCalculator;
 import de.julianpadawan.timelog.model.Activity;
 import de.julianpadawan.timelog.model.Goal;
 import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.Person;
 import de.julianpadawan.timelog.model.QualityTime;
+import de.julianpadawan.timelog.model.StartupSnapshot;
 import de.julianpadawan.timelog.view.edit.GoalDialog;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -26,16 +29,20 @@ import javafx.scene.text.Text;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class GoalsList extends VBox {
     private final ObservableList<Goal> goals = FXCollections.observableArrayList();
     private final Text pointsText = new Text("0");
     private final Pane pane = new FlowPane(10, 10);
     private double points = 0;
+    private int pointsGeneration = 0;
+    private StartupSnapshot snapshot;
 
-    public GoalsList() {
+    public GoalsList(StartupSnapshot snapshot) {
         super(10);
+        this.snapshot = snapshot;
         setAlignment(Pos.CENTER);
 
         final Button newButton = Util.button("New Goal", () -> new GoalDialog().showAndWait().ifPresent(goals::add));
@@ -51,22 +58,25 @@ public class GoalsList extends VBox {
         setVgrow(scrollPane, Priority.ALWAYS);
 
         goals.addListener(this::onListChanged);
-        goals.addAll(Goal.FACTORY.getAll());
+        reported("Load Goals", Goal.FACTORY.getAllAsync().thenAcceptAsync(goals::addAll, Platform::runLater));
         calculatePoints();
     }
 
     private void onListChanged(ListChangeListener.Change<? extends Goal> c) {
+        final List<GoalLine> added = new ArrayList<>();
         while (c.next()) {
             if (c.wasPermutated()) {
                 ErrorAlert.show("ListChange", new UnsupportedOperationException("entries list must not be permutated"));
             } else if (c.wasUpdated()) {
                 ErrorAlert.show("ListChange", new UnsupportedOperationException("entries list must not be updated"));
             } else {
-                for (Goal added : c.getAddedSubList()) add(added);
+                for (Goal goal : c.getAddedSubList()) added.add(add(goal));
                 for (Goal removed : c.getRemoved()) remove(removed);
-                FXCollections.sort(pane.getChildren(), GoalsList::sort);
             }
         }
+        final StartupSnapshot restoreFrom = snapshot;
+        snapshot = null;
+        load(added, restoreFrom).thenRun(() -> FXCollections.sort(pane.getChildren(), GoalsList::sort));
     }
 
     private static int sort(Node o1, Node o2) {
@@ -77,28 +87,51 @@ public class GoalsList extends VBox {
         return complete != 0 ? complete : line1.goal.compareTo(line2.goal);
     }
 
-    private void add(Goal added) {
-        pane.getChildren().add(new GoalLine(added, true));
+    private GoalLine add(Goal added) {
+        final GoalLine line = new GoalLine(added);
+        pane.getChildren().add(line);
+        return line;
     }
 
     private void remove(Goal removed) {
-        pane.getChildren().remove(new GoalLine(removed, false));
+        pane.getChildren().remove(new GoalLine(removed));
+    }
+
+    private static CompletableFuture<Void> load(Collection<GoalLine> lines, StartupSnapshot snapshot) {
+        final List<StreakCalculator> calculators = new ArrayList<>();
+        for (GoalLine line : lines) calculators.add(line.prepare(snapshot));
+        final CompletableFuture<Void> loading = reported("Load Streaks",
+                StreakCalculator.initAllAsync(calculators, LocalDateTime.now())
+                        .thenRun(() -> lines.forEach(GoalLine::showProgress)));
+        for (GoalLine line : lines) line.loading = loading;
+        return loading;
     }
 
     private void calculatePoints() {
         points = 0;
         displayPoints();
-        LogEntry.FACTORY.getAllFinishedOnDateOf(LocalDateTime.now()).forEach(this::addPointsOf);
+        final int generation = ++pointsGeneration;
+        final CompletableFuture<Collection<LogEntry>> entries = LogEntry.FACTORY.getAllFinishedOnDateOfAsync(LocalDateTime.now());
+        reported("Calculate Points", entries.thenCompose(QualityTime.FACTORY::getAllPersonsAsync).thenAcceptAsync(persons -> {
+            if (generation != pointsGeneration) return;
+            entries.join().forEach(entry -> addPointsOf(entry, persons.getOrDefault(entry, Collections.emptyList())));
+        }, Platform::runLater));
+    }
+
+    private static <T> CompletableFuture<T> reported(String title, CompletableFuture<T> future) {
+        return future.whenComplete((result, exception) -> {
+            if (exception != null) App.showError(title, exception);
+        });
     }
 
     private void displayPoints() {
         pointsText.setText(String.format("%+d", Math.round(this.points)));
     }
 
-    private void addPointsOf(LogEntry entry) {
+    private void addPointsOf(LogEntry entry, Collection<Person> persons) {
         double factor = entry.getActivity().getPointsPerMinute();
-        for (QualityTime qualityTime : QualityTime.FACTORY.getAll(entry))
-            factor *= qualityTime.getSecond().getPointsFactor();
+        for (Person person : persons)
+            factor *= person.getPointsFactor();
         final long minutes = entry.getStart().until(entry.getEnd(), ChronoUnit.MINUTES);
         this.points += factor * minutes;
         displayPoints();
@@ -109,26 +142,43 @@ public class GoalsList extends VBox {
     }
 
     public void reload() {
+        final List<GoalLine> lines = new ArrayList<>();
         pane.getChildren().forEach(node -> {
-            if (node instanceof GoalLine) ((GoalLine) node).load();
+            if (node instanceof GoalLine) lines.add((GoalLine) node);
         });
+        load(lines, null).thenRun(() -> FXCollections.sort(pane.getChildren(), GoalsList::sort));
         calculatePoints();
     }
 
+    public Map<Integer, StartupSnapshot.StreakState> getStreakStates() {
+        final Map<Integer, StartupSnapshot.StreakState> states = new HashMap<>();
+        pane.getChildren().forEach(node -> {
+            if (!(node instanceof GoalLine)) return;
+            final GoalLine line = (GoalLine) node;
+            if (line.calculator != null && line.loading != null && line.loading.isDone()
+                    && !line.loading.isCompletedExceptionally())
+                states.put(line.goal.getId(), line.calculator.toStreakState());
+        });
+        return states;
+    }
+
     public void acceptEntry(LogEntry newEntry) {
         pane.getChildren().forEach(node -> {
             if (node instanceof GoalLine) ((GoalLine) node).accept(newEntry);
         });
         FXCollections.sort(pane.getChildren(), GoalsList::sort);
-        addPointsOf(newEntry);
+        final List<Person> persons = new ArrayList<>();
+        for (QualityTime qualityTime : QualityTime.FACTORY.getAll(newEntry)) persons.add(qualityTime.getSecond());
+        addPointsOf(newEntry, persons);
     }
 
     private static class GoalLine extends HBox {
         private final Goal goal;
         private final Text label = new Text(), streak = new Text(), progress = new Text();
         private StreakCalculator calculator;
+        private CompletableFuture<Void> loading;
 
-        private GoalLine(Goal goal, boolean load) {
+        private GoalLine(Goal goal) {
             super(5);
             setPadding(new Insets(5));
             this.goal = goal;
@@ -139,8 +189,6 @@ public class GoalsList extends VBox {
                     CustomBindings.select(goal.activityProperty(), Activity::colorProperty),
                     color -> new Background(new BackgroundFill(Color.valueOf(color), null, null))));
             setOnMouseClicked(this::doubleClick);
-
-            if (load) this.load();
         }
 
         private void doubleClick(MouseEvent mouseEvent) {
@@ -149,11 +197,22 @@ public class GoalsList extends VBox {
         }
 
         private void load() {
+            loading = reported("Load Streak", prepare(null).initAsync(LocalDateTime.now()).thenRun(this::showProgress));
+        }
+
+        private StreakCalculator prepare(StartupSnapshot snapshot) {
             calculator = StreakCalculator.of(goal);
             label.textProperty().bind(calculator.labelProperty());
             streak.textProperty().bind(calculator.streakProperty());
             progress.textProperty().bind(calculator.progressProperty());
-            calculator.init(LocalDateTime.now());
+            if (snapshot != null) snapshot.getStreakState(goal.getId()).ifPresent(state -> {
+                calculator.restore(state);
+                showProgress();
+            });
+            return calculator;
+        }
+
+        private void showProgress() {
             if (!calculator.isComplete()) {
                 getChildren().remove(progress);
                 getChildren().add(progress);
@@ -161,11 +220,11 @@ public class GoalsList extends VBox {
         }
 
         private void accept(LogEntry newEntry) {
-            if (calculator == null) load();
-            else {
+            if (calculator == null || loading.isCompletedExceptionally()) load();
+            else loading.thenRun(() -> {
                 calculator.acceptNew(newEntry);
                 if (calculator.isComplete()) getChildren().remove(progress);
-            }
+            });
         }
 
         @Override
@@ -0,0 +1,112 @@
+package de.julianpadawan.timelog.view;
+
+import de.julianpadawan.common.customFX.ErrorAlert;
+import de.julianpadawan.timelog.io.LogImporter;
+import de.julianpadawan.timelog.model.DatabaseExecutor;
+import javafx.concurrent.Task;
+import javafx.event.ActionEvent;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.DialogEvent;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public class ImportDialog extends Alert {
+    private static final ButtonType IMPORT_BUTTON = new ButtonType("Import", ButtonBar.ButtonData.OK_DONE);
+
+    private final Path file;
+    private final ProgressBar progressBar = new ProgressBar();
+    private final TextArea summary = new TextArea();
+    private Task<LogImporter.Result> task;
+    private boolean imported;
+
+    public ImportDialog(Path file) {
+        super(AlertType.CONFIRMATION);
+        this.file = file;
+        setTitle("Import");
+        setHeaderText("Import " + file.getFileName());
+
+        summary.setEditable(false);
+        summary.setWrapText(true);
+        summary.setPrefRowCount(10);
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        getDialogPane().setContent(new VBox(10, progressBar, summary));
+        getDialogPane().getButtonTypes().setAll(IMPORT_BUTTON, ButtonType.CANCEL);
+        setResizable(true);
+
+        final Button importButton = (Button) getDialogPane().lookupButton(IMPORT_BUTTON);
+        importButton.setDisable(true);
+        importButton.addEventFilter(ActionEvent.ACTION, event -> {
+            event.consume();
+            importButton.setDisable(true);
+            imported = true;
+            run(false);
+        });
+        addEventHandler(DialogEvent.DIALOG_HIDDEN, event -> {
+            if (task != null) task.cancel(true);
+            if (imported) App.restart(true);
+        });
+
+        run(true);
+    }
+
+    public static Optional<ImportDialog> choose(Window owner) {
+        final FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Entries");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV or JSON lines", "*.csv", "*.json", "*.jsonl", "*.ndjson"),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+        final File file = fileChooser.showOpenDialog(owner);
+        return Optional.ofNullable(file).map(File::toPath).map(ImportDialog::new);
+    }
+
+    private void run(boolean dryRun) {
+        summary.setText(dryRun ? "Validating..." : "Importing...");
+        task = new Task<>() {
+            @Override
+            protected LogImporter.Result call() throws Exception {
+                return dryRun
+                        ? LogImporter.validate(file, this::updateProgress)
+                        : LogImporter.importFile(file, this::updateProgress);
+            }
+        };
+        progressBar.progressProperty().bind(task.progressProperty());
+        task.setOnSucceeded(event -> {
+            final LogImporter.Result result = task.getValue();
+            summary.setText(describe(result, dryRun));
+            if (dryRun) getDialogPane().lookupButton(IMPORT_BUTTON).setDisable(result.getEntries() == 0);
+            else getDialogPane().getButtonTypes().setAll(ButtonType.CLOSE);
+        });
+        task.setOnFailed(event -> {
+            close();
+            final Throwable exception = task.getException();
+            ErrorAlert.show("Import", exception instanceof Exception ? (Exception) exception : new RuntimeException(exception));
+        });
+
+        DatabaseExecutor.run(task);
+    }
+
+    private static String describe(LogImporter.Result result, boolean dryRun) {
+        final StringBuilder text = new StringBuilder();
+        if (dryRun) text.append(String.format("%d entries can be imported.%n", result.getEntries()));
+        else text.append(String.format("%d entries imported.%n", result.getWritten()));
+        if (!result.isComplete()) text.append(String.format("The file was not read completely.%n"));
+        text.append(String.format("%s %d activities, %d people and %d means of transport.%n",
+                dryRun ? "Will create" : "Created",
+                result.getCreatedActivities(), result.getCreatedPersons(), result.getCreatedTransports()));
+        if (result.getSkipped() > 0) {
+            text.append(String.format("%n%d records %s skipped:%n", result.getSkipped(), dryRun ? "will be" : "were"));
+            result.getProblems().forEach(problem -> text.append(problem).append(System.lineSeparator()));
+        }
+        return text.toString();
+    }
+}
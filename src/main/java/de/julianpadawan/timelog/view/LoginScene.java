@@ -3,6 +3,7 @@ package de.julianpadawan.timelog.view;
 import de.julianpadawan.common.customFX.ErrorAlert;
 import de.julianpadawan.common.customFX.GridPane2C;
 import de.julianpadawan.timelog.preferences.PreferenceMap;
+import de.julianpadawan.timelog.preferences.Preferences;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
@@ -16,6 +17,7 @@ public class LoginScene extends Scene {
     private final PreferenceMap preferenceMap;
     private final ChoiceBox<DriverChoice> driver;
     private final TextField database;
+    private final ChoiceBox<StorageProfile> profile;
     private final TextField username;
     private final PasswordField password;
     private final Runnable onLogin;
@@ -35,6 +37,10 @@ public class LoginScene extends Scene {
         database.setPrefColumnCount(20);
         preferenceMap.mapTo(database, "DatabaseURL");
 
+        profile = gridPane2C.addRow("Storage Profile", new ChoiceBox<>());
+        profile.getItems().addAll(StorageProfile.values());
+        preferenceMap.mapTo(profile, "DatabaseStorageProfile", StorageProfile::valueOf);
+
         username = gridPane2C.addRow("Username", new TextField());
         preferenceMap.mapTo(username, "DatabaseUsername");
 
@@ -48,20 +54,35 @@ public class LoginScene extends Scene {
         login.setDefaultButton(true);
         login.setOnAction(this::login);
 
+        Button demo = gridPane2C.addRow("", new Button("Open Demo Database"));
+        demo.setOnAction(this::openDemo);
+
         if (skipAllowed && automaticLogin.isSelected()) Platform.runLater(login::fire);
     }
 
     private void login(ActionEvent event) {
         try {
             preferenceMap.dumpPreferences();
-            if (App.initDatabase(driver.getValue().name + ":" + database.getText(),
-                    username.getText(), password.getText()))
+            if (App.initDatabase(getDatabaseURL(), username.getText(), password.getText()))
                 onLogin.run();
         } catch (IOException e) {
             ErrorAlert.show("Datebase Init", e);
         }
     }
 
+    private void openDemo(ActionEvent event) {
+        try {
+            App.initDemoDatabase(onLogin);
+        } catch (IOException e) {
+            ErrorAlert.show("Datebase Init", e);
+        }
+    }
+
+    static String getDatabaseURL() {
+        return DriverChoice.valueOf(Preferences.get("DatabaseDriver")).name + ":" + Preferences.get("DatabaseURL")
+                + StorageProfile.valueOf(Preferences.get("DatabaseStorageProfile")).parameters;
+    }
+
     private enum DriverChoice {
         SQLite("jdbc:sqlite");
 
@@ -71,4 +92,15 @@ public class LoginScene extends Scene {
             this.name = name;
         }
     }
+
+    private enum StorageProfile {
+        Default(""),
+        WAL("?journal_mode=WAL&synchronous=NORMAL&busy_timeout=5000&cache_size=-16000&mmap_size=268435456");
+
+        private final String parameters;
+
+        StorageProfile(String parameters) {
+            this.parameters = parameters;
+        }
+    }
 }
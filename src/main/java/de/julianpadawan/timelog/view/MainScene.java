@@ -1,7 +1,13 @@
 package de.julianpadawan.timelog.view;
 
 import de.julianpadawan.common.customFX.DatePickerDialog;
+import de.julianpadawan.common.customFX.ErrorAlert;
+import de.julianpadawan.timelog.io.LogExporter;
+import de.julianpadawan.timelog.jfr.Recorder;
+import de.julianpadawan.timelog.jfr.StartupEvent;
+import de.julianpadawan.timelog.model.DatabaseExecutor;
 import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.StartupSnapshot;
 import de.julianpadawan.timelog.preferences.Preferences;
 import de.julianpadawan.timelog.view.edit.AllActivitiesDialog;
 import de.julianpadawan.timelog.view.edit.LogEntryDialog;
@@ -10,35 +16,68 @@ import de.julianpadawan.timelog.view.insight.ListAll;
 import de.julianpadawan.timelog.view.insight.LookAtDayDialog;
 import de.julianpadawan.timelog.view.insight.LookAtDaysDialog;
 import de.julianpadawan.timelog.view.insight.Report;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.ParseException;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.logging.Logger;
 
 public class MainScene extends Scene {
+    private static final Logger LOGGER = Logger.getLogger(MainScene.class.getName());
+    private static volatile Duration timeToFirstFrame;
 
+    private final long createdAt = System.nanoTime();
+    private final StartupEvent startupEvent = new StartupEvent();
+    private final Runnable firstFrameListener = this::onFirstFrame;
     private final LogEntryList logEntryList = new LogEntryList();
-    private final GoalsList goals = new GoalsList();
+    private final GoalsList goals;
+    private final CompletableFuture<Bounds> bounds;
+    private final boolean fromSnapshot;
+    private long constructionNanos;
 
     public MainScene() {
         super(new BorderPane(), Preferences.getDouble("MainSceneWidth"), Preferences.getDouble("MainSceneHeight"));
+        final Optional<StartupSnapshot> snapshot = App.takeSnapshot();
+        fromSnapshot = snapshot.isPresent();
+        bounds = snapshot.map(loaded -> CompletableFuture.completedFuture(new Bounds(loaded.getFirstEnd(), loaded.getLastEnd())))
+                .orElseGet(() -> LogEntry.FACTORY.getFirstAsync().thenCombine(LogEntry.FACTORY.getLastAsync(),
+                        (first, last) -> new Bounds(first == null ? null : first.getEnd(), last == null ? null : last.getEnd()))
+                        .exceptionally(exception -> {
+                            App.showError("Log Bounds", exception);
+                            return new Bounds(null, null);
+                        }));
+        goals = new GoalsList(snapshot.orElse(null));
         widthProperty().addListener((obs, old, value) -> Preferences.set("MainSceneWidth", (double) value));
         heightProperty().addListener((obs, old, value) -> Preferences.set("MainSceneHeight", (double) value));
 
-        logEntryList.getEntries().addAll(LogEntry.FACTORY.getAllFinishedOnDateOf(LocalDateTime.now()).stream().sorted().collect(Collectors.toList()));
+        LogEntry.FACTORY.getAllFinishedOnDateOfAsync(LocalDateTime.now()).thenAcceptAsync(entries -> {
+            for (LogEntry entry : entries)
+                if (!logEntryList.getEntries().contains(entry)) logEntryList.getEntries().add(entry);
+            FXCollections.sort(logEntryList.getEntries());
+        }, Platform::runLater);
 
         LocalDate today = LogEntry.today();
         final CurrentEntryDisplay currentEntryDisplay = new CurrentEntryDisplay(logEntry -> {
@@ -58,6 +97,26 @@ public class MainScene extends Scene {
         BorderPane.setMargin(logEntryList, new Insets(10));
         if (Preferences.getBoolean("UseGoals")) borderPane.setBottom(goals);
         BorderPane.setMargin(goals, new Insets(0, 10, 10, 10));
+
+        constructionNanos = System.nanoTime() - createdAt;
+        addPostLayoutPulseListener(firstFrameListener);
+    }
+
+    static Optional<Duration> getTimeToFirstFrame() {
+        return Optional.ofNullable(timeToFirstFrame);
+    }
+
+    private void onFirstFrame() {
+        if (getWindow() == null || !getWindow().isShowing()) return;
+        removePostLayoutPulseListener(firstFrameListener);
+        timeToFirstFrame = Duration.ofNanos(System.nanoTime() - createdAt);
+        startupEvent.finish(fromSnapshot, constructionNanos);
+        LOGGER.info(String.format("first frame after %d ms (constructor %d ms)",
+                timeToFirstFrame.toMillis(), constructionNanos / 1_000_000));
+    }
+
+    Map<Integer, StartupSnapshot.StreakState> getStreakStates() {
+        return goals.getStreakStates();
     }
 
     private MenuBar getMenuBar() {
@@ -73,7 +132,11 @@ public class MainScene extends Scene {
                         (from, days) -> ListAll.between(from, from.plusDays(days - 1)).ifPresent(Dialog::show)),
                 new Menu("Tools", null,
                         editAllMenuItem(),
+                        importMenuItem(),
+                        exportMenuItem(),
                         editActivitiesMenuItem(),
+                        diagnosticsMenuItem(),
+                        recordingMenuItem(),
                         reloadGoalsMenuItem(),
                         restartMenuItem(),
                         loginMenuItem(),
@@ -83,12 +146,24 @@ public class MainScene extends Scene {
     }
 
     private Menu getMenu(final String label, final Consumer<LocalDate> dayAction, final BiConsumer<LocalDate, Integer> timeSpanAction) {
-        final LocalDate last = LogEntry.getDate(LogEntry.FACTORY.getLast().getEnd());
-        final LocalDate first = LogEntry.getDate(LogEntry.FACTORY.getFirst().getEnd());
-        return new Menu(label, null,
+        final MenuItem loading = new MenuItem("Loading...");
+        loading.setDisable(true);
+        final Menu menu = new Menu(label, null, loading);
+        menu.setOnShowing(event -> {
+            menu.setOnShowing(null);
+            if (bounds.isDone()) menu.getItems().setAll(getMenuItems(bounds.join(), dayAction, timeSpanAction));
+            else bounds.thenAcceptAsync(loaded -> menu.getItems().setAll(getMenuItems(loaded, dayAction, timeSpanAction)),
+                    Platform::runLater);
+        });
+        return menu;
+    }
+
+    private List<MenuItem> getMenuItems(final Bounds bounds, final Consumer<LocalDate> dayAction, final BiConsumer<LocalDate, Integer> timeSpanAction) {
+        final LocalDate first = bounds.first, last = bounds.last;
+        return List.of(
                 getMenuItem("Today", () -> dayAction.accept(LogEntry.today())),
                 getMenuItem("Yesterday", () -> dayAction.accept(LogEntry.today().minusDays(1))),
-                getMenuItem("Day ...", () -> chooseDay(dayAction), first.isBefore(LogEntry.today().minusDays(1))),
+                getMenuItem("Day ...", () -> chooseDay(bounds, dayAction), first.isBefore(LogEntry.today().minusDays(1))),
                 new SeparatorMenuItem(),
                 getMenuItem("Last 4 days", () -> timeSpanAction.accept(LogEntry.today().minusDays(3), 4), first.isBefore(last.minusDays(2))),
                 getMenuItem("Current Week", () -> timeSpanAction.accept(startOfWeek(), 7)),
@@ -99,20 +174,83 @@ public class MainScene extends Scene {
                 getMenuItem("All Time", () -> timeSpanAction.accept(first, (int) first.until(last, ChronoUnit.DAYS) + 1), first.isBefore(last)),
                 new SeparatorMenuItem(),
                 getMenuItem("Days From ... To ...",
-                        () -> chooseTimeSpan((from, to) -> timeSpanAction.accept(from,
+                        () -> chooseTimeSpan(bounds, (from, to) -> timeSpanAction.accept(from,
                                 (int) from.until(to, ChronoUnit.DAYS) + 1)), first.isBefore(last))
         );
     }
 
     private MenuItem editAllMenuItem() {
         return getMenuItem("Edit All Entries",
-                () -> LogEntry.FACTORY.getAll().forEach(logEntry -> new LogEntryDialog(logEntry).showAndWait()));
+                () -> {
+                    for (LogEntry logEntry = LogEntry.FACTORY.getNext(null); logEntry != null;
+                         logEntry = LogEntry.FACTORY.getNext(logEntry))
+                        new LogEntryDialog(logEntry).showAndWait();
+                });
+    }
+
+    private MenuItem importMenuItem() {
+        return getMenuItem("Import Entries", () -> ImportDialog.choose(getWindow()).ifPresent(Dialog::show));
+    }
+
+    private MenuItem exportMenuItem() {
+        return getMenuItem("Export Entries", this::export);
+    }
+
+    private void export() {
+        final FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Entries");
+        fileChooser.setInitialFileName("timelog.csv");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        final File file = fileChooser.showSaveDialog(getWindow());
+        if (file == null) return;
+        DatabaseExecutor.supply(() -> {
+            try {
+                return LogExporter.export(file.toPath(), null, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenCompleteAsync((exported, exception) -> {
+            if (exception != null) App.showError("Export", exception);
+            else new Alert(Alert.AlertType.INFORMATION, exported + " entries exported to " + file.getName()).show();
+        }, Platform::runLater);
     }
 
     private MenuItem editActivitiesMenuItem() {
         return getMenuItem("Edit Activities", () -> new AllActivitiesDialog().show());
     }
 
+    private MenuItem diagnosticsMenuItem() {
+        return getMenuItem("Diagnostics", () -> new DiagnosticsDialog().show());
+    }
+
+    private MenuItem recordingMenuItem() {
+        final MenuItem menuItem = new MenuItem();
+        menuItem.setOnAction(event -> {
+            toggleRecording();
+            menuItem.setText(Recorder.isRecording() ? "Stop Recording" : "Start Recording");
+        });
+        menuItem.setText(Recorder.isRecording() ? "Stop Recording" : "Start Recording");
+        return menuItem;
+    }
+
+    private void toggleRecording() {
+        try {
+            if (Recorder.isRecording()) {
+                final Path file = Recorder.stop();
+                new Alert(Alert.AlertType.INFORMATION, "Recording saved to " + file.getFileName()).show();
+                return;
+            }
+            final FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("Start Recording");
+            fileChooser.setInitialFileName("timelog.jfr");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Flight Recording", "*.jfr"));
+            final File file = fileChooser.showSaveDialog(getWindow());
+            if (file != null) Recorder.start(file.toPath());
+        } catch (IOException | ParseException e) {
+            ErrorAlert.show("Recording", e);
+        }
+    }
+
     private MenuItem reloadGoalsMenuItem() {
         return getMenuItem("Reload Goals", goals::reload);
     }
@@ -137,11 +275,10 @@ public class MainScene extends Scene {
         return menuItem;
     }
 
-    private void chooseDay(final Consumer<LocalDate> action) {
-        Optional.ofNullable(LogEntry.FACTORY.getFirst()).map(LogEntry::getEnd).map(LogEntry::getDate)
-                .map(first -> first.minusDays(1))
-                .map(begin -> DatePickerDialog.between(begin, LogEntry.today().minusDays(1)))
-                .orElseGet(() -> DatePickerDialog.before(LogEntry.today().minusDays(1))).showAndWait().ifPresent(action);
+    private void chooseDay(final Bounds bounds, final Consumer<LocalDate> action) {
+        (bounds.empty ? DatePickerDialog.before(LogEntry.today().minusDays(1))
+                : DatePickerDialog.between(bounds.first.minusDays(1), LogEntry.today().minusDays(1)))
+                .showAndWait().ifPresent(action);
     }
 
     private MenuItem getMenuItem(String label, final Runnable eventHandler, boolean enabled) {
@@ -160,9 +297,20 @@ public class MainScene extends Scene {
         timeSpanAction.accept(begin, days);
     }
 
-    private void chooseTimeSpan(final BiConsumer<LocalDate, LocalDate> action) {
-        DatePickerDialog.between("From", LogEntry.getDate(LogEntry.FACTORY.getFirst().getEnd()).minusDays(1), LogEntry.today()).showAndWait()
+    private void chooseTimeSpan(final Bounds bounds, final BiConsumer<LocalDate, LocalDate> action) {
+        DatePickerDialog.between("From", bounds.first.minusDays(1), LogEntry.today()).showAndWait()
                 .ifPresent(from -> DatePickerDialog.between("To", from, LogEntry.today().plusDays(1)).showAndWait()
                         .ifPresent(to -> action.accept(from, to)));
     }
+
+    private static final class Bounds {
+        private final LocalDate first, last;
+        private final boolean empty;
+
+        private Bounds(LocalDateTime firstEnd, LocalDateTime lastEnd) {
+            empty = firstEnd == null || lastEnd == null;
+            first = empty ? LogEntry.today() : LogEntry.getDate(firstEnd);
+            last = empty ? LogEntry.today() : LogEntry.getDate(lastEnd);
+        }
+    }
 }
@@ -68,6 +68,17 @@ public final class PreferencesDialog extends Dialog<Boolean> {
         final CheckBox dailyAverages = gridPane2C.addRow("Show Daily Averages In Report", new CheckBox());
         preferenceMap.mapTo(dailyAverages, "ShowDailyAveragesInReport");
 
+        final CheckBox parallelStatistics = gridPane2C.addRow("Compute Statistics In Parallel", new CheckBox());
+        preferenceMap.mapTo(parallelStatistics, "ParallelStatistics");
+
+        gridPane2C.addSeparator();
+
+        final TextField fetchSize = gridPane2C.addRow("Database Cursor Fetch Size", new TextField());
+        preferenceMap.mapTo(fetchSize, "CursorFetchSize");
+
+        final TextField slowQuery = gridPane2C.addRow("Log Queries Slower Than (ms)", new TextField());
+        preferenceMap.mapTo(slowQuery, "SlowQueryMillis");
+
         getDialogPane().getButtonTypes().addAll(OK_BUTTON, ButtonType.CANCEL);
         Button okButton = (Button) getDialogPane().lookupButton(OK_BUTTON);
         okEnabled = CustomBindings.matches(marks, "\\d+")
@@ -76,7 +87,9 @@ public final class PreferencesDialog extends Dialog<Boolean> {
                 .and(startOfDay.valueProperty().isNotNull())
                 .and(CustomBindings.matches(sleepID, "-1|\\d+"))
                 .and(CustomBindings.matches(sleepLineHeight, "\\d+"))
-                .and(CustomBindings.matches(activityDepth, "[1-9]\\d*"));
+                .and(CustomBindings.matches(activityDepth, "[1-9]\\d*"))
+                .and(CustomBindings.matches(fetchSize, "[1-9]\\d*"))
+                .and(CustomBindings.matches(slowQuery, "\\d+"));
         okEnabled.addListener(observable -> okButton.setDisable(!okEnabled.getValue()));
 
         setResultConverter(buttonType -> {
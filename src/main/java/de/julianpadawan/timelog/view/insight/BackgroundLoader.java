@@ -0,0 +1,80 @@
+package de.julianpadawan.timelog.view.insight;
+
+import de.julianpadawan.common.customFX.ErrorAlert;
+import de.julianpadawan.timelog.model.DatabaseExecutor;
+import de.julianpadawan.timelog.model.LogEntry;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogEvent;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+final class BackgroundLoader<T> extends Task<T> {
+    private static final Map<Class<?>, BackgroundLoader<?>> CURRENT = new ConcurrentHashMap<>();
+
+    private final Work<T> work;
+
+    private BackgroundLoader(Work<T> work) {
+        this.work = work;
+    }
+
+    static <T> void load(Dialog<?> dialog, Work<T> work, Function<T, Node> display) {
+        final BackgroundLoader<T> loader = new BackgroundLoader<>(work);
+
+        final ProgressIndicator indicator = new ProgressIndicator();
+        indicator.progressProperty().bind(loader.progressProperty());
+        final StackPane loading = new StackPane(indicator);
+        loading.setPrefSize(200, 100);
+        dialog.getDialogPane().setContent(loading);
+
+        loader.setOnSucceeded(event -> {
+            CURRENT.remove(dialog.getClass(), loader);
+            dialog.getDialogPane().setContent(display.apply(loader.getValue()));
+        });
+        loader.setOnCancelled(event -> {
+            CURRENT.remove(dialog.getClass(), loader);
+            dialog.close();
+        });
+        loader.setOnFailed(event -> {
+            CURRENT.remove(dialog.getClass(), loader);
+            dialog.close();
+            final Throwable exception = loader.getException();
+            ErrorAlert.show(dialog.getTitle(), exception instanceof Exception
+                    ? (Exception) exception : new RuntimeException(exception));
+        });
+        dialog.addEventHandler(DialogEvent.DIALOG_HIDDEN, event -> loader.cancel(true));
+
+        final BackgroundLoader<?> previous = CURRENT.put(dialog.getClass(), loader);
+        if (previous != null) previous.cancel(true);
+        DatabaseExecutor.run(loader);
+    }
+
+    static Consumer<LogEntry> tracking(Progress progress, LocalDateTime from, LocalDateTime to, Consumer<LogEntry> consumer) {
+        final long total = Math.max(1, Duration.between(from, to).getSeconds());
+        return logEntry -> {
+            consumer.accept(logEntry);
+            progress.update(Duration.between(from, logEntry.getEnd()).getSeconds(), total);
+        };
+    }
+
+    @Override
+    protected T call() throws Exception {
+        return work.run(this::updateProgress);
+    }
+
+    interface Work<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    interface Progress {
+        void update(long done, long total);
+    }
+}
@@ -1,6 +1,7 @@
 package de.julianpadawan.timelog.view.insight;
 
 import de.julianpadawan.common.customFX.CreatingChoiceBox;
+import de.julianpadawan.timelog.jfr.ContentEvent;
 import de.julianpadawan.timelog.model.Activity;
 import de.julianpadawan.timelog.model.LogEntry;
 import de.julianpadawan.timelog.preferences.Preferences;
@@ -15,85 +16,60 @@ import javafx.scene.text.Text;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class ListAll extends Alert {
     private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
-    public ListAll(String headerText, Activity activity, Collection<LogEntry> logEntries) {
+    public ListAll(String headerText, Activity activity, LocalDateTime from, LocalDateTime to) {
         super(AlertType.INFORMATION);
         setTitle("ListAll");
         setHeaderText(headerText);
 
-        final ScrollPane scrollPane = new ScrollPane(createGridPane(activity, logEntries));
-        scrollPane.setFitToWidth(true);
-        scrollPane.setMaxHeight(500);
-        getDialogPane().setContent(scrollPane);
         getDialogPane().setPrefSize(500, 500);
+        BackgroundLoader.load(this, progress -> collectRows(activity, from, to, progress), rows -> {
+            final ScrollPane scrollPane = new ScrollPane(createGridPane(from, to, rows));
+            scrollPane.setFitToWidth(true);
+            scrollPane.setMaxHeight(500);
+            return scrollPane;
+        });
     }
 
-    private GridPane createGridPane(Activity activity, Collection<LogEntry> logEntries) {
+    private static List<Row> collectRows(Activity activity, LocalDateTime from, LocalDateTime to,
+                                         BackgroundLoader.Progress progress) {
+        final RowCollector collector = new RowCollector(activity);
+        LogEntry.FACTORY.forEachFinishedBetween(from, to, BackgroundLoader.tracking(progress, from, to, collector));
+        collector.finish();
+        return collector.rows;
+    }
+
+    private static GridPane createGridPane(LocalDateTime from, LocalDateTime to, List<Row> rows) {
+        final ContentEvent event = new ContentEvent("ListAll", from, to);
         final GridPane grid = new GridPane();
         grid.setHgap(5);
         grid.setVgap(5);
         int row = 0;
-        LocalDate accumulatingDate = null;
-        Duration accumulatedDuration = Duration.ZERO;
-        int accumulated = 0;
-        for (LogEntry logEntry : logEntries) {
-            if (!logEntry.getActivity().instanceOf(activity)) continue;
-            LocalDate date = LogEntry.getDate(logEntry.getEnd());
-            Duration duration = Duration.between(logEntry.getStart(), logEntry.getEnd());
-
-            if (date.equals(accumulatingDate)) {
-                accumulatedDuration = accumulatedDuration.plus(duration);
-                accumulated++;
-            } else {
-                if (accumulatingDate != null)
-                    row = addAccumulatingRow(grid, row, accumulatingDate, accumulatedDuration, accumulated);
-                accumulatingDate = date;
-                accumulatedDuration = duration;
-                accumulated = 1;
-            }
-
-            grid.addRow(row++,
-                    new Text(FORMAT.format(logEntry.getStart())),
-                    new Text(FORMAT.format(logEntry.getEnd())),
-                    new Text(App.formatDuration(duration, false)),
-                    new Text(logEntry.getActivity().getName()),
-                    new Text(logEntry.getWhat())
-            );
-        }
-        addAccumulatingRow(grid, row, accumulatingDate, accumulatedDuration, accumulated);
+        for (Row entry : rows) row = entry.addTo(grid, row);
+        event.finish(grid::getRowCount);
         return grid;
     }
 
-    private int addAccumulatingRow(GridPane grid, int row, LocalDate accumulatingDate, Duration accumulatedDuration, int accumulated) {
-        if (accumulated > 1) {
-            grid.add(new Separator(), 0, row++, 5, 1);
-
-            grid.add(new Text(DATE_FORMAT.format(accumulatingDate)), 0, row);
-            grid.add(new Text(App.formatDuration(accumulatedDuration, false)), 2, row);
-            row++;
-
-        }
-        grid.add(new Separator(), 0, row++, 5, 1);
-        row++;
-        return row;
-    }
-
     public static Optional<ListAll> on(LocalDate date) {
-        return getListAll(DATE_FORMAT.format(date), LogEntry.FACTORY.getAllFinishedOnDateOf(LogEntry.atStartOfDay(date)));
+        return getListAll(DATE_FORMAT.format(date),
+                LogEntry.atStartOfDay(date), LogEntry.atStartOfDay(date.plus(1, ChronoUnit.DAYS)));
     }
 
-    private static Optional<ListAll> getListAll(final String headerText, final Collection<LogEntry> entries) {
+    private static Optional<ListAll> getListAll(final String headerText, final LocalDateTime from, final LocalDateTime to) {
         if (Preferences.getBoolean("UseActivityChooser")) {
             return Optional.ofNullable(ChooseActivityDialog.choose(Activity.getRoot()))
-                    .map(activity -> new ListAll(headerText, activity, entries));
+                    .map(activity -> new ListAll(headerText, activity, from, to));
         } else {
             final CreatingChoiceBox<Activity> choiceBox = CreatingChoiceBox.simple(Activity.FACTORY.getAll());
             choiceBox.setValue(Activity.getRoot());
@@ -102,7 +78,7 @@ public class ListAll extends Alert {
             alert.setHeaderText(headerText);
             alert.getDialogPane().setContent(choiceBox);
             if (alert.showAndWait().filter(buttonType -> buttonType.equals(ButtonType.OK)).isPresent()) {
-                return Optional.of(new ListAll(headerText, choiceBox.getValue(), entries));
+                return Optional.of(new ListAll(headerText, choiceBox.getValue(), from, to));
             }
         }
         return Optional.empty();
@@ -110,6 +86,89 @@ public class ListAll extends Alert {
 
     public static Optional<ListAll> between(LocalDate begin, LocalDate end) {
         if (!begin.isBefore(end)) throw new IllegalArgumentException();
-        return getListAll(DATE_FORMAT.format(begin) + " - " + DATE_FORMAT.format(end), LogEntry.FACTORY.getAllFinishedBetween(begin, end.plus(1, ChronoUnit.DAYS)));
+        return getListAll(DATE_FORMAT.format(begin) + " - " + DATE_FORMAT.format(end),
+                LogEntry.atStartOfDay(begin), LogEntry.atStartOfDay(end.plus(1, ChronoUnit.DAYS)));
+    }
+
+    private abstract static class Row {
+        abstract int addTo(GridPane grid, int row);
+    }
+
+    private static final class EntryRow extends Row {
+        private final String start, end, duration, activity, what;
+
+        private EntryRow(LogEntry logEntry, Duration duration) {
+            this.start = FORMAT.format(logEntry.getStart());
+            this.end = FORMAT.format(logEntry.getEnd());
+            this.duration = App.formatDuration(duration, false);
+            this.activity = logEntry.getActivity().getName();
+            this.what = logEntry.getWhat();
+        }
+
+        @Override
+        int addTo(GridPane grid, int row) {
+            grid.addRow(row, new Text(start), new Text(end), new Text(duration), new Text(activity), new Text(what));
+            return row + 1;
+        }
+    }
+
+    private static final class DayEndRow extends Row {
+        private final String date, duration;
+
+        private DayEndRow(LocalDate date, Duration duration, int accumulated) {
+            this.date = accumulated > 1 ? DATE_FORMAT.format(date) : null;
+            this.duration = App.formatDuration(duration, false);
+        }
+
+        @Override
+        int addTo(GridPane grid, int row) {
+            if (date != null) {
+                grid.add(new Separator(), 0, row++, 5, 1);
+
+                grid.add(new Text(date), 0, row);
+                grid.add(new Text(duration), 2, row);
+                row++;
+
+            }
+            grid.add(new Separator(), 0, row++, 5, 1);
+            row++;
+            return row;
+        }
+    }
+
+    private static final class RowCollector implements Consumer<LogEntry> {
+        private final List<Row> rows = new ArrayList<>();
+        private final Activity activity;
+        private LocalDate accumulatingDate = null;
+        private Duration accumulatedDuration = Duration.ZERO;
+        private int accumulated = 0;
+
+        private RowCollector(Activity activity) {
+            this.activity = activity;
+        }
+
+        @Override
+        public void accept(LogEntry logEntry) {
+            if (!logEntry.getActivity().instanceOf(activity)) return;
+            LocalDate date = LogEntry.getDate(logEntry.getEnd());
+            Duration duration = Duration.between(logEntry.getStart(), logEntry.getEnd());
+
+            if (date.equals(accumulatingDate)) {
+                accumulatedDuration = accumulatedDuration.plus(duration);
+                accumulated++;
+            } else {
+                if (accumulatingDate != null)
+                    rows.add(new DayEndRow(accumulatingDate, accumulatedDuration, accumulated));
+                accumulatingDate = date;
+                accumulatedDuration = duration;
+                accumulated = 1;
+            }
+
+            rows.add(new EntryRow(logEntry, duration));
+        }
+
+        private void finish() {
+            rows.add(new DayEndRow(accumulatingDate, accumulatedDuration, accumulated));
+        }
     }
 }
@@ -1,5 +1,6 @@
 package de.julianpadawan.timelog.view.insight;
 
+import de.julianpadawan.timelog.jfr.ContentEvent;
 import de.julianpadawan.timelog.model.LogEntry;
 import de.julianpadawan.timelog.preferences.Preferences;
 import de.julianpadawan.timelog.view.LogEntryList;
@@ -14,6 +15,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LookAtDaysDialog extends Alert {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
@@ -22,18 +25,41 @@ public class LookAtDaysDialog extends Alert {
         this(from, (int) (from.until(to, ChronoUnit.DAYS) + 1));
     }
 
-    public LookAtDaysDialog(LocalDate from, int days) {
+    public LookAtDaysDialog(LocalDate firstDay, int days) {
         super(AlertType.INFORMATION);
         setTitle("Look at Days");
-        setHeaderText(DATE_FORMAT.format(from) + " - " + DATE_FORMAT.format(from.plusDays(days - 1)));
+        setHeaderText(DATE_FORMAT.format(firstDay) + " - " + DATE_FORMAT.format(firstDay.plusDays(days - 1)));
 
+        final LocalDateTime from = LogEntry.atStartOfDay(firstDay), to = LogEntry.atStartOfDay(firstDay.plusDays(days));
+        BackgroundLoader.load(this, progress -> {
+            final List<List<LogEntry>> entries = new ArrayList<>(days);
+            if (days <= LogEntry.LogEntryFactory.DAY_CACHE_CAPACITY) {
+                for (int i = 0; i < days; i++) {
+                    entries.add(new ArrayList<>(LogEntry.FACTORY.getAllFinishedOnDateOf(LogEntry.atStartOfDay(firstDay.plusDays(i)))));
+                    progress.update(i + 1, days);
+                }
+                return entries;
+            }
+            for (int i = 0; i < days; i++) entries.add(new ArrayList<>());
+            LogEntry.FACTORY.forEachFinishedBetween(from, to, BackgroundLoader.tracking(progress, from, to, logEntry -> {
+                final int day = (int) firstDay.until(LogEntry.getDate(logEntry.getEnd()), ChronoUnit.DAYS);
+                if (day >= 0 && day < days) entries.get(day).add(logEntry);
+            }));
+            return entries;
+        }, entries -> createContent(firstDay, entries));
+        setResizable(true);
+    }
+
+    private static ScrollPane createContent(LocalDate firstDay, List<List<LogEntry>> entries) {
+        final int days = entries.size();
+        final ContentEvent event = new ContentEvent("LookAtDays", firstDay, firstDay.plusDays(days - 1));
         final HBox daysBox = new HBox();
         for (int i = 0; i < days; i++) {
             VBox list = new VBox();
-            final LocalDate date = from.plusDays(i);
+            final LocalDate date = firstDay.plusDays(i);
             final LocalDateTime startOfDay = date.atTime(Preferences.getTime("StartOfDay"));
 
-            for (LogEntry logEntry : LogEntry.FACTORY.getAllFinishedOnDateOf(LogEntry.atStartOfDay(date))) {
+            for (LogEntry logEntry : entries.get(i)) {
                 list.getChildren().add(new LogEntryList.ActivityLine(logEntry, startOfDay));
             }
 
@@ -47,7 +73,7 @@ public class LookAtDaysDialog extends Alert {
         scrollPane.setMaxWidth(Screen.getPrimary().getVisualBounds().getWidth() - 20);
         scrollPane.setPrefHeight(500);
         scrollPane.setPrefWidth(800);
-        getDialogPane().setContent(scrollPane);
-        setResizable(true);
+        event.finish(() -> entries.stream().mapToInt(List::size).sum());
+        return scrollPane;
     }
 }
@@ -1,52 +1,49 @@
 package de.julianpadawan.timelog.view.insight;
 
-import de.julianpadawan.common.customFX.Util;
 import de.julianpadawan.timelog.insight.ActivityStatistic;
 import de.julianpadawan.timelog.insight.QualityTimeStatistic;
 import de.julianpadawan.timelog.insight.Statistic;
 import de.julianpadawan.timelog.insight.StatisticalDatum;
+import de.julianpadawan.timelog.jfr.ContentEvent;
 import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.DayRollup;
 import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.LogEntryColumns;
+import de.julianpadawan.timelog.model.Person;
 import de.julianpadawan.timelog.preferences.Preferences;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
-import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.input.MouseButton;
-import javafx.scene.input.MouseEvent;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.StackPane;
-import javafx.scene.layout.VBox;
-import javafx.scene.text.Text;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableView;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 
 public class Report extends Alert {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     public Report(String timeFrame, Collection<LogEntry> logEntries, int averagedOver) {
+        this(timeFrame);
+        getDialogPane().setContent(createContent(timeFrame,
+                new Statistics(ActivityStatistic.of(logEntries), QualityTimeStatistic.of(logEntries)), averagedOver));
+    }
+
+    private Report(String timeFrame) {
         super(AlertType.INFORMATION);
         setTitle("Report");
         setHeaderText("Report for " + timeFrame);
 
-        final VBox vBox = new VBox(20);
-        Statistic<Activity, Duration> activityStatistic = ActivityStatistic.of(logEntries);
-        if (Preferences.getBoolean("FlattenActivityStatistic")) activityStatistic = activityStatistic.flattened();
-        vBox.getChildren().add(new ReportLine<>(activityStatistic, Preferences.getInt("ActivityStatisticDefaultDepth"),
-                Preferences.getBoolean("ShowDailyAveragesInReport") ? averagedOver : 1));
-        vBox.getChildren().add(new ReportLine<>(QualityTimeStatistic.of(logEntries), 1));
-
-        final ScrollPane scrollPane = new ScrollPane(vBox);
-        scrollPane.setFitToWidth(true);
-        getDialogPane().setContent(scrollPane);
         getDialogPane().setPrefWidth(Preferences.getDouble("ReportDialogWidth"));
         getDialogPane().setPrefHeight(Preferences.getDouble("ReportDialogHeight"));
         getDialogPane().widthProperty().addListener((obs, old, value) -> Preferences.set("ReportDialogWidth", (double) value));
@@ -54,78 +51,124 @@ public class Report extends Alert {
         setResizable(true);
     }
 
+    private static Node createContent(String timeFrame, Statistics statistics, int averagedOver) {
+        final ContentEvent event = new ContentEvent("Report", timeFrame, null);
+        final int activityAveragedOver = Preferences.getBoolean("ShowDailyAveragesInReport") ? averagedOver : 1;
+        final TreeItem<ReportRow> root = new TreeItem<>();
+        root.getChildren().add(new StatisticItem(statistics.activity, activityAveragedOver,
+                Preferences.getInt("ActivityStatisticDefaultDepth")));
+        root.getChildren().add(new StatisticItem(statistics.qualityTime, 1, 1));
+
+        final TreeTableView<ReportRow> table = new TreeTableView<>(root);
+        table.setShowRoot(false);
+        table.setColumnResizePolicy(TreeTableView.CONSTRAINED_RESIZE_POLICY);
+        table.getColumns().add(getColumn("Name", row -> row.name, 3));
+        table.getColumns().add(getColumn("Duration", row -> row.datum.toString(), 1));
+        final TreeTableColumn<ReportRow, String> average = getColumn("Daily Average",
+                row -> row.averagedOver > 1 ? row.datum.dividedBy(row.averagedOver).toString() : "", 1);
+        average.setVisible(activityAveragedOver > 1);
+        table.getColumns().add(average);
+        event.finish(() -> statistics.activity.getSubStatistics().size() + statistics.qualityTime.getSubStatistics().size());
+        return table;
+    }
+
+    private static TreeTableColumn<ReportRow, String> getColumn(String title, Function<ReportRow, String> text, int weight) {
+        final TreeTableColumn<ReportRow, String> column = new TreeTableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(text.apply(cell.getValue().getValue())));
+        column.setSortable(false);
+        column.setMaxWidth(weight * 1000d);
+        if (weight == 1) column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
+    }
+
+    private static Report load(String timeFrame, BackgroundLoader.Work<Statistics> work, int averagedOver) {
+        final Report report = new Report(timeFrame);
+        BackgroundLoader.load(report, work, statistics -> createContent(timeFrame, statistics, averagedOver));
+        return report;
+    }
+
     public static Report on(LocalDate date) {
-        return new Report(DATE_FORMAT.format(date),
-                LogEntry.FACTORY.getAllFinishedOnDateOf(LogEntry.atStartOfDay(date)),
-                1);
+        final LocalDateTime from = LogEntry.atStartOfDay(date), to = LogEntry.atStartOfDay(date.plus(1, ChronoUnit.DAYS));
+        return load(DATE_FORMAT.format(date), progress -> {
+            final ActivityStatistic activityStatistic = ActivityStatistic.between(from, to);
+            progress.update(1, 2);
+            return new Statistics(activityStatistic, QualityTimeStatistic.between(from, to));
+        }, 1);
     }
 
     public static Report between(LocalDate begin, LocalDate end) {
         if (!begin.isBefore(end)) throw new IllegalArgumentException();
-        return new Report(DATE_FORMAT.format(begin) + " - " + DATE_FORMAT.format(end),
-                LogEntry.FACTORY.getAllFinishedBetween(begin, end.plus(1, ChronoUnit.DAYS)),
-                (int) begin.until(end, ChronoUnit.DAYS) + 1);
+        final LocalDateTime from = LogEntry.atStartOfDay(begin), to = LogEntry.atStartOfDay(end.plus(1, ChronoUnit.DAYS));
+        return load(DATE_FORMAT.format(begin) + " - " + DATE_FORMAT.format(end), progress -> {
+            final LogEntryColumns columns = LogEntry.FACTORY.getColumns();
+            progress.update(1, 3);
+            final ActivityStatistic activityStatistic = DayRollup.isAvailable()
+                    ? ActivityStatistic.of(DayRollup.getTotalsBetween(begin, end.plus(1, ChronoUnit.DAYS)))
+                    : ActivityStatistic.of(columns, from, to);
+            progress.update(2, 3);
+            return new Statistics(activityStatistic, QualityTimeStatistic.of(columns, from, to));
+        }, (int) begin.until(end, ChronoUnit.DAYS) + 1);
     }
 
-    private static class ReportLine<T, D> extends StackPane {
-        private final HBox single;
-        private final VBox all;
-        private boolean expanded;
+    private static final class Statistics {
+        private final Statistic<Activity, Duration> activity;
+        private final Statistic<Person, Duration> qualityTime;
 
-        public ReportLine(Statistic<T, D> statistic, int expandedDepth, int averagedOver) {
-            super();
-            single = getLine(statistic.getName(), statistic.getAggregateData(), averagedOver);
-            all = getExpandedView(statistic, expandedDepth, averagedOver);
-
-            getChildren().add(single);
-            setOnMouseClicked(this::onclick);
-            show(expanded = expandedDepth > 0);
+        private Statistics(Statistic<Activity, Duration> activity, Statistic<Person, Duration> qualityTime) {
+            this.activity = Preferences.getBoolean("FlattenActivityStatistic") ? activity.flattened() : activity;
+            this.qualityTime = qualityTime;
         }
+    }
+
+    private static final class ReportRow {
+        private final String name;
+        private final StatisticalDatum<?> datum;
+        private final int averagedOver;
 
-        public ReportLine(Statistic<T, D> statistic, int expandedDepth) {
-            this(statistic, expandedDepth, 1);
+        private ReportRow(String name, StatisticalDatum<?> datum, int averagedOver) {
+            this.name = name;
+            this.datum = datum;
+            this.averagedOver = averagedOver;
         }
+    }
 
-        private HBox getLine(String label, StatisticalDatum<?> datum, int averagedOver) {
-            final HBox hBox = new HBox(5, new Text(label), Util.hBoxSpacer(), getText(datum));
-            if (averagedOver > 1) {
-                hBox.getChildren().add(getText(datum.dividedBy(averagedOver)));
-            }
-            return hBox;
+    private static final class StatisticItem extends TreeItem<ReportRow> {
+        private final Statistic<?, ?> statistic;
+        private final int averagedOver, expandedDepth;
+        private boolean loaded;
+
+        private StatisticItem(Statistic<?, ?> statistic, int averagedOver, int expandedDepth) {
+            super(new ReportRow(statistic.getName(), statistic.getAggregateData(), averagedOver));
+            this.statistic = statistic;
+            this.averagedOver = averagedOver;
+            this.expandedDepth = expandedDepth;
+            setExpanded(expandedDepth > 0 && !isLeaf());
         }
 
-        private VBox getExpandedView(Statistic<T, D> statistic, int expandedDepth, int averagedOver) {
-            VBox all = new VBox(5);
-            all.setPadding(new Insets(0, 0, 10, 0));
-            all.getChildren().add(getLine(statistic.getName(), statistic.getData(), averagedOver));
+        private static <T, D> List<TreeItem<ReportRow>> createChildren(Statistic<T, D> statistic, int averagedOver, int expandedDepth) {
+            final List<TreeItem<ReportRow>> children = new ArrayList<>();
+            if (!statistic.getData().isZero())
+                children.add(new TreeItem<>(new ReportRow(statistic.getName(), statistic.getData(), averagedOver)));
 
             final List<Statistic<T, D>> subStatistics = new ArrayList<>(statistic.getSubStatistics());
             subStatistics.sort(Comparator.<Statistic<T, D>>naturalOrder().reversed());
-            for (Statistic<T, D> subStatistic : subStatistics) {
-                final ReportLine<T, D> line = new ReportLine<>(subStatistic, Math.max(0, expandedDepth - 1), averagedOver);
-                line.setPadding(new Insets(0, 0, 0, 10));
-                all.getChildren().add(line);
-            }
-            return all.getChildren().size() > 1 ? all : null;
-        }
-
-        private Label getText(StatisticalDatum<?> datum) {
-            final Label text = new Label(datum.toString());
-            text.setMinWidth(60);
-            text.setAlignment(Pos.BASELINE_RIGHT);
-            return text;
+            for (Statistic<T, D> subStatistic : subStatistics)
+                children.add(new StatisticItem(subStatistic, averagedOver, expandedDepth));
+            return children;
         }
 
-        private void onclick(MouseEvent mouseEvent) {
-            if (!mouseEvent.getButton().equals(MouseButton.PRIMARY)) return;
-            show(expanded = !expanded);
-            mouseEvent.consume();
+        @Override
+        public boolean isLeaf() {
+            return statistic.getSubStatistics().isEmpty();
         }
 
-        private void show(boolean expanded) {
-            if (all == null) return;
-            getChildren().removeAll(single, all);
-            getChildren().add(expanded ? all : single);
+        @Override
+        public ObservableList<TreeItem<ReportRow>> getChildren() {
+            if (!loaded) {
+                loaded = true;
+                super.getChildren().setAll(createChildren(statistic, averagedOver, Math.max(0, expandedDepth - 1)));
+            }
+            return super.getChildren();
         }
     }
 }
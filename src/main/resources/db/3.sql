@@ -0,0 +1,22 @@
+CREATE INDEX log_end_activity_index
+    ON log (end, activity);
+
+CREATE INDEX log_start_index
+    ON log (start);
+
+CREATE INDEX log_activity_index
+    ON log (activity);
+
+CREATE INDEX log_unfinished_index
+    ON log (id)
+    WHERE end IS NULL;
+
+CREATE INDEX activity_parent_index
+    ON activity (parent);
+
+CREATE INDEX qualityTime_person_index
+    ON qualityTime (person, logEntry);
+
+ANALYZE;
+
+PRAGMA user_version = 3;
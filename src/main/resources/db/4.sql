@@ -0,0 +1,75 @@
+CREATE TABLE dayRollupConfig
+(
+    id         integer not null primary key check (id = 0),
+    startOfDay integer not null
+);
+
+INSERT INTO dayRollupConfig (id, startOfDay)
+VALUES (0, -1);
+
+CREATE TABLE dayRollup
+(
+    day      text    not null,
+    activity integer not null,
+    millis   integer default 0 not null,
+    entries  integer default 0 not null,
+    constraint dayRollup_pk
+        primary key (day, activity)
+);
+
+CREATE TRIGGER dayRollup_insert
+    AFTER INSERT
+    ON log
+    WHEN NEW.end IS NOT NULL AND (SELECT startOfDay FROM dayRollupConfig) >= 0
+BEGIN
+    INSERT INTO dayRollup (day, activity, millis, entries)
+    SELECT date(NEW.end / 1000, 'unixepoch', 'localtime', -startOfDay || ' minutes'),
+           NEW.activity, NEW.end - NEW.start, 1
+    FROM dayRollupConfig
+    WHERE true
+    ON CONFLICT (day, activity) DO UPDATE SET millis = millis + excluded.millis, entries = entries + 1;
+END;
+
+CREATE TRIGGER dayRollup_update
+    AFTER UPDATE OF activity, start, end
+    ON log
+    WHEN (SELECT startOfDay FROM dayRollupConfig) >= 0
+BEGIN
+    UPDATE dayRollup
+    SET millis = millis - (OLD.end - OLD.start),
+        entries = entries - 1
+    WHERE OLD.end IS NOT NULL
+      AND activity = OLD.activity
+      AND day = (SELECT date(OLD.end / 1000, 'unixepoch', 'localtime', -startOfDay || ' minutes') FROM dayRollupConfig);
+    INSERT INTO dayRollup (day, activity, millis, entries)
+    SELECT date(NEW.end / 1000, 'unixepoch', 'localtime', -startOfDay || ' minutes'),
+           NEW.activity, NEW.end - NEW.start, 1
+    FROM dayRollupConfig
+    WHERE NEW.end IS NOT NULL
+    ON CONFLICT (day, activity) DO UPDATE SET millis = millis + excluded.millis, entries = entries + 1;
+    DELETE
+    FROM dayRollup
+    WHERE OLD.end IS NOT NULL
+      AND activity = OLD.activity
+      AND day = (SELECT date(OLD.end / 1000, 'unixepoch', 'localtime', -startOfDay || ' minutes') FROM dayRollupConfig)
+      AND entries <= 0;
+END;
+
+CREATE TRIGGER dayRollup_delete
+    AFTER DELETE
+    ON log
+    WHEN OLD.end IS NOT NULL AND (SELECT startOfDay FROM dayRollupConfig) >= 0
+BEGIN
+    UPDATE dayRollup
+    SET millis = millis - (OLD.end - OLD.start),
+        entries = entries - 1
+    WHERE activity = OLD.activity
+      AND day = (SELECT date(OLD.end / 1000, 'unixepoch', 'localtime', -startOfDay || ' minutes') FROM dayRollupConfig);
+    DELETE
+    FROM dayRollup
+    WHERE activity = OLD.activity
+      AND day = (SELECT date(OLD.end / 1000, 'unixepoch', 'localtime', -startOfDay || ' minutes') FROM dayRollupConfig)
+      AND entries <= 0;
+END;
+
+PRAGMA user_version = 4;
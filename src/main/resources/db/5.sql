@@ -0,0 +1,115 @@
+CREATE TABLE dataGeneration
+(
+    id         integer not null primary key check (id = 0),
+    generation integer not null
+);
+
+INSERT INTO dataGeneration (id, generation)
+VALUES (0, 0);
+
+CREATE TRIGGER dataGeneration_log_insert
+    AFTER INSERT
+    ON log
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_log_update
+    AFTER UPDATE
+    ON log
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_log_delete
+    AFTER DELETE
+    ON log
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_activity_insert
+    AFTER INSERT
+    ON activity
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_activity_update
+    AFTER UPDATE
+    ON activity
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_activity_delete
+    AFTER DELETE
+    ON activity
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_qualityTime_insert
+    AFTER INSERT
+    ON qualityTime
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_qualityTime_update
+    AFTER UPDATE
+    ON qualityTime
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_qualityTime_delete
+    AFTER DELETE
+    ON qualityTime
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_goal_insert
+    AFTER INSERT
+    ON goal
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_goal_update
+    AFTER UPDATE
+    ON goal
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_goal_delete
+    AFTER DELETE
+    ON goal
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_person_insert
+    AFTER INSERT
+    ON person
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_person_update
+    AFTER UPDATE
+    ON person
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+CREATE TRIGGER dataGeneration_person_delete
+    AFTER DELETE
+    ON person
+BEGIN
+    UPDATE dataGeneration SET generation = generation + 1;
+END;
+
+PRAGMA user_version = 5;
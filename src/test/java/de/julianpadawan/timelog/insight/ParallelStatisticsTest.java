@@ -0,0 +1,119 @@
+package de.julianpadawan.timelog.insight;
+
+import de.julianpadawan.common.db.Database;
+import de.julianpadawan.timelog.io.HistoryGenerator;
+import de.julianpadawan.timelog.model.Activity;
+import de.julianpadawan.timelog.model.LogEntry;
+import de.julianpadawan.timelog.model.MeansOfTransport;
+import de.julianpadawan.timelog.model.StatementCache;
+import de.julianpadawan.timelog.preferences.Preferences;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelStatisticsTest {
+    private static final int ENTRIES = 4 * ParallelAggregation.SEQUENTIAL_THRESHOLD;
+
+    private static Connection keepAlive;
+    private static List<LogEntry> entries;
+    private static LocalDateTime from, to;
+
+    @BeforeAll
+    static void setUp() throws IOException, SQLException {
+        Preferences.set("StartOfDay", LocalTime.of(5, 50));
+        Preferences.set("CursorFetchSize", 500);
+        Preferences.set("SleepID", -1);
+
+        final String url = "jdbc:sqlite:file:timelog-test-" + System.nanoTime() + "?mode=memory&cache=shared";
+        keepAlive = DriverManager.getConnection(url);
+        Database.init(url, "", "");
+        StatementCache.init(url, "", "");
+        for (int version = 1; version <= 5; version++) Database.execFile("db/" + version + ".sql");
+
+        final HistoryGenerator.Result result = new HistoryGenerator(HistoryGenerator.DEFAULT_SEED)
+                .generateEntries(LocalDate.of(2000, 1, 1), ENTRIES, (done, total) -> {
+                });
+        from = result.getFirst();
+        to = result.getLast().plusSeconds(1);
+        entries = new ArrayList<>(LogEntry.FACTORY.getAllFinishedBetween(from, to));
+        assertTrue(entries.size() > ParallelAggregation.SEQUENTIAL_THRESHOLD, "history too small to fork");
+    }
+
+    @AfterEach
+    void resetPreference() {
+        Preferences.set("ParallelStatistics", false);
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        StatementCache.close();
+        Activity.FACTORY.clearCache();
+        MeansOfTransport.FACTORY.clearCache();
+        LogEntry.FACTORY.clearCache();
+        keepAlive.close();
+    }
+
+    @Test
+    void activityStatisticOfEntries() {
+        assertSameResult(() -> ActivityStatistic.of(entries));
+    }
+
+    @Test
+    void activityStatisticOfColumns() {
+        assertSameResult(() -> ActivityStatistic.of(LogEntry.FACTORY.getColumns(), from, to));
+    }
+
+    @Test
+    void qualityTimeStatisticOfEntries() {
+        assertSameResult(() -> QualityTimeStatistic.of(entries));
+    }
+
+    @Test
+    void qualityTimeStatisticOfColumns() {
+        assertSameResult(() -> QualityTimeStatistic.of(LogEntry.FACTORY.getColumns(), from, to));
+    }
+
+    private static <T, D> void assertSameResult(Supplier<? extends Statistic<T, D>> statistic) {
+        Preferences.set("ParallelStatistics", false);
+        final Statistic<T, D> sequential = statistic.get();
+        Preferences.set("ParallelStatistics", true);
+        final Statistic<T, D> parallel = statistic.get();
+
+        assertFalse(sequential.getAggregateData().isZero(), "nothing was aggregated");
+        assertFalse(sequential.getSubStatistics().isEmpty(), "nothing was aggregated");
+        assertSameTree(sequential, parallel);
+    }
+
+    private static <T, D> void assertSameTree(Statistic<T, D> expected, Statistic<T, D> actual) {
+        assertEquals(expected.key, actual.key);
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getData().get(), actual.getData().get(), expected.getName());
+        assertEquals(expected.getAggregateData().get(), actual.getAggregateData().get(), expected.getName());
+
+        final Map<T, Statistic<T, D>> children = byKey(actual);
+        assertEquals(byKey(expected).keySet(), children.keySet(), expected.getName());
+        for (Statistic<T, D> child : expected.getSubStatistics()) assertSameTree(child, children.get(child.key));
+    }
+
+    private static <T, D> Map<T, Statistic<T, D>> byKey(Statistic<T, D> statistic) {
+        final Map<T, Statistic<T, D>> children = new HashMap<>();
+        for (Statistic<T, D> child : statistic.getSubStatistics()) children.put(child.key, child);
+        return children;
+    }
+}